@@ -0,0 +1,68 @@
+package com.dijkstras;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// Graph under test plus a fixed list of random query pairs, shared by all
+// benchmark threads. type "file" loads the path in -Dbench.graph=<file>.
+@State(Scope.Benchmark)
+public class BenchmarkGraph {
+    static final int QUERIES = 1024;
+
+    @Param({"grid", "geometric", "scalefree"})
+    public String type;
+
+    @Param({"100000"})
+    public int nodes;
+
+    @Param({"42"})
+    public long seed;
+
+    CsrGraph graph;
+    CsrGraph reverse;
+    int[] sources;
+    int[] targets;
+    int delta;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        switch (type) {
+            case "grid":
+                graph = SyntheticGraphs.grid((int) Math.sqrt(nodes), seed);
+                break;
+            case "geometric":
+                graph = SyntheticGraphs.randomGeometric(nodes, 6, seed);
+                break;
+            case "scalefree":
+                graph = SyntheticGraphs.scaleFree(nodes, 3, seed);
+                break;
+            case "file":
+                String file = System.getProperty("bench.graph");
+                if (file == null) {
+                    throw new IllegalStateException("type=file needs -Dbench.graph=<path>");
+                }
+                graph = SyntheticGraphs.load(Paths.get(file));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown graph type " + type);
+        }
+        reverse = graph.reverse();
+        delta = DeltaStepping.defaultDelta(graph);
+
+        Random random = new Random(seed);
+        int n = graph.nodeCount();
+        sources = new int[QUERIES];
+        targets = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dijkstras;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+// Default run of the suite. Every result file is JMH JSON, so two runs can be
+// compared with any JMH result viewer or a plain diff:
+//
+//     target/jmh/latency.json       point-to-point queries, with GC profiler
+//     target/jmh/throughput.json    single-source searches, with GC profiler
+//     target/jmh/scaling-<t>.json   binary-heap queries on t threads
+//
+// The GC profiler adds gc.alloc.rate.norm (bytes allocated per operation).
+// Any arguments are passed to the standard JMH command line instead.
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Path out = Paths.get("target", "jmh");
+        Files.createDirectories(out);
+
+        new Runner(options(out.resolve("latency.json"))
+                .include(PointToPointBenchmark.class.getSimpleName())
+                .build()).run();
+        new Runner(options(out.resolve("throughput.json"))
+                .include(SingleSourceBenchmark.class.getSimpleName())
+                .build()).run();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(cores, threads * 2)) {
+            new Runner(options(out.resolve("scaling-" + threads + ".json"))
+                    .include(PointToPointBenchmark.class.getSimpleName() + ".dijkstraBinaryHeap")
+                    .param("type", "grid")
+                    .mode(org.openjdk.jmh.annotations.Mode.Throughput)
+                    .timeUnit(TimeUnit.SECONDS)
+                    .threads(threads)
+                    .build()).run();
+            if (threads == cores) break;
+        }
+    }
+
+    private static ChainedOptionsBuilder options(Path result) {
+        return new OptionsBuilder()
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+    }
+}
@@ -0,0 +1,107 @@
+package com.dijkstras;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Checks DeltaStepping against the sequential solver before its timings mean
+// anything. For random graphs, including zero-weight edges and unreachable
+// pairs, and a range of delta values, every query must give the same distance,
+// and the returned path must be a real path from src to dest of that weight.
+// The same seed always checks the same graphs and queries:
+//
+//     java -cp target/benchmarks.jar com.dijkstras.DeltaSteppingCheck [seed]
+//
+// Exits with status 1 on the first mismatch.
+public class DeltaSteppingCheck {
+    private static final int GRAPHS = 40;
+    private static final int QUERIES = 50;
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        Random random = new Random(seed);
+        // Small frontiers run inline, so big graphs are needed to cover the parallel relaxation
+        ForkJoinPool pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        int checked = 0;
+        try {
+            for (int g = 0; g < GRAPHS; g++) {
+                int n = g % 4 == 0 ? 5_000 + random.nextInt(20_000) : 2 + random.nextInt(300);
+                CsrGraph graph = randomGraph(n, 1 + random.nextInt(6), random);
+                checked += check("random " + g, graph, random, pool);
+            }
+            checked += check("grid", SyntheticGraphs.grid(120, seed), random, pool);
+            checked += check("geometric", SyntheticGraphs.randomGeometric(20_000, 6, seed), random, pool);
+            checked += check("scalefree", SyntheticGraphs.scaleFree(20_000, 3, seed), random, pool);
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("DeltaStepping matches Dijkstra on " + checked + " queries");
+    }
+
+    // Directed, with parallel edges, self loops, and about one weight in five zero
+    private static CsrGraph randomGraph(int n, int averageDegree, Random random) {
+        int m = n * averageDegree;
+        int[] src = new int[m], dest = new int[m], wt = new int[m];
+        int maxWeight = random.nextBoolean() ? 10 : 10_000;
+        for (int e = 0; e < m; e++) {
+            src[e] = random.nextInt(n);
+            dest[e] = random.nextInt(n);
+            wt[e] = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(maxWeight);
+        }
+        return CsrGraph.fromEdges(n, src, dest, wt);
+    }
+
+    private static int check(String name, CsrGraph graph, Random random, ForkJoinPool pool) {
+        int maxWeight = Math.max(1, graph.maxWeight());
+        int[] deltas = {1, 2, Math.max(1, maxWeight / 10), DeltaStepping.defaultDelta(graph), maxWeight, 4 * maxWeight};
+        int n = graph.nodeCount();
+        for (int q = 0; q < QUERIES; q++) {
+            int src = random.nextInt(n);
+            int dest = random.nextInt(n);
+            int expected = DijkstrasAlgorithm.dijkstraWithPath(graph, src, dest).distance;
+            for (int delta : deltas) {
+                DijkstrasAlgorithm.Result result = DeltaStepping.shortestPath(graph, src, dest, delta, pool);
+                if (result.distance != expected) {
+                    fail(name, src, dest, delta, "distance " + result.distance + ", expected " + expected);
+                }
+                String problem = pathProblem(graph, src, dest, result);
+                if (problem != null) {
+                    fail(name, src, dest, delta, problem);
+                }
+            }
+        }
+        return QUERIES;
+    }
+
+    // Null when the path is empty for an unreachable dest, or runs from src to
+    // dest over existing edges with a total weight equal to the distance
+    private static String pathProblem(CsrGraph graph, int src, int dest, DijkstrasAlgorithm.Result result) {
+        ArrayList<Integer> path = result.path;
+        if (result.distance < 0) {
+            return path.isEmpty() ? null : "path given for an unreachable dest";
+        }
+        if (path.isEmpty() || path.get(0) != src || path.get(path.size() - 1) != dest) {
+            return "path " + path + " does not run from src to dest";
+        }
+        long weight = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int u = path.get(i), v = path.get(i + 1);
+            int best = Integer.MAX_VALUE; // parallel edges: the path uses the lightest
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                if (graph.target(e) == v) {
+                    best = Math.min(best, graph.weight(e));
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                return "path " + path + " uses a missing edge " + u + " -> " + v;
+            }
+            weight += best;
+        }
+        return weight == result.distance ? null : "path weight " + weight + ", distance " + result.distance;
+    }
+
+    private static void fail(String name, int src, int dest, int delta, String problem) {
+        System.err.println(name + ": query " + src + " -> " + dest + " with delta " + delta + ": " + problem);
+        System.exit(1);
+    }
+}
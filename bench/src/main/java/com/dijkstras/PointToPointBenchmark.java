@@ -0,0 +1,89 @@
+package com.dijkstras;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Latency of one point-to-point query. Each thread walks the shared query
+// list from its own cursor, so every invocation is a different pair.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointToPointBenchmark {
+    private int next;
+
+    // Contraction hierarchies take a while to build, so only their benchmark pays for it
+    @State(Scope.Benchmark)
+    public static class Hierarchy {
+        ContractionHierarchy ch;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkGraph g) {
+            ch = ContractionHierarchy.build(g.graph);
+        }
+    }
+
+    private int query() {
+        return next++ & (BenchmarkGraph.QUERIES - 1);
+    }
+
+    @Benchmark
+    public int dijkstraBinaryHeap(BenchmarkGraph g) {
+        int i = query();
+        return DijkstrasAlgorithm.dijkstraWithPath(g.graph, g.sources[i], g.targets[i],
+                DijkstrasAlgorithm.QueueType.BINARY_HEAP).distance;
+    }
+
+    @Benchmark
+    public int dijkstraQuaternaryHeap(BenchmarkGraph g) {
+        int i = query();
+        return DijkstrasAlgorithm.dijkstraWithPath(g.graph, g.sources[i], g.targets[i],
+                DijkstrasAlgorithm.QueueType.QUATERNARY_HEAP).distance;
+    }
+
+    @Benchmark
+    public int dijkstraBuckets(BenchmarkGraph g) {
+        int i = query();
+        return DijkstrasAlgorithm.dijkstraWithPath(g.graph, g.sources[i], g.targets[i],
+                DijkstrasAlgorithm.QueueType.BUCKET).distance;
+    }
+
+    // The allocation-free path: no Result, no boxed path
+    @Benchmark
+    public int[] shortestPathArray(BenchmarkGraph g) {
+        int i = query();
+        return DijkstrasAlgorithm.shortestPath(g.graph, g.sources[i], g.targets[i]);
+    }
+
+    @Benchmark
+    public int bidirectional(BenchmarkGraph g) {
+        int i = query();
+        return DijkstrasAlgorithm.bidirectionalDijkstra(g.graph, g.reverse, g.sources[i], g.targets[i]).distance;
+    }
+
+    // Checked against the sequential solver by DeltaSteppingCheck
+    @Benchmark
+    public int deltaStepping(BenchmarkGraph g) {
+        int i = query();
+        return DeltaStepping.shortestPath(g.graph, g.sources[i], g.targets[i], g.delta).distance;
+    }
+
+    @Benchmark
+    public int contractionHierarchy(BenchmarkGraph g, Hierarchy h) {
+        int i = query();
+        return h.ch.distance(g.sources[i], g.targets[i]);
+    }
+}
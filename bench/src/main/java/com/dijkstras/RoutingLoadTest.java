@@ -0,0 +1,83 @@
+package com.dijkstras;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Load generator for RoutingServer. Starts the server in this JVM on a grid
+// graph with a small in-flight limit, then sends every request at once from
+// an HttpClient and counts the answers by status:
+//
+//     java -cp target/benchmarks.jar com.dijkstras.RoutingLoadTest [requests] [limit] [grid side]
+//
+// Over the limit the server must shed load with 503 rather than queue, so
+// any status other than 200 or 503, or a failed connection, exits with 1.
+public class RoutingLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int side = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        CsrGraph graph = SyntheticGraphs.grid(side, 42);
+        RoutingServer server = new RoutingServer(graph, new InetSocketAddress("127.0.0.1", 0), limit);
+        server.start();
+        try {
+            run(graph, server.port(), requests);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void run(CsrGraph graph, int port, int requests) {
+        HttpClient client = HttpClient.newHttpClient();
+        Random random = new Random(1);
+        AtomicIntegerArray byStatus = new AtomicIntegerArray(600);
+        long[] latency = new long[requests];
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int src = random.nextInt(graph.nodeCount()), dst = random.nextInt(graph.nodeCount());
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + port + "/route?src=" + src + "&dst=" + dst)).build();
+            int id = i;
+            long sent = System.nanoTime();
+            pending[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        latency[id] = System.nanoTime() - sent;
+                        byStatus.incrementAndGet(response.statusCode());
+                    });
+        }
+        int failed = 0;
+        for (CompletableFuture<?> future : pending) {
+            try {
+                future.join();
+            } catch (RuntimeException e) {
+                failed++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int ok = byStatus.get(200), busy = byStatus.get(503);
+        int other = requests - failed - ok - busy;
+        long[] answered = Arrays.stream(latency).filter(t -> t > 0).sorted().toArray();
+        System.out.printf("%d requests in %d ms: %d ok, %d busy (503), %d other, %d failed%n",
+                requests, elapsed / 1_000_000, ok, busy, other, failed);
+        if (answered.length > 0) {
+            System.out.printf("latency ms: p50 %.1f, p99 %.1f, max %.1f%n",
+                    percentile(answered, 0.50), percentile(answered, 0.99), answered[answered.length - 1] / 1e6);
+        }
+        if (other > 0 || failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+    }
+}
@@ -0,0 +1,42 @@
+package com.dijkstras;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of whole-graph searches: one full shortest-path tree, and a
+// 16 x 16 distance matrix that stops each row once its targets are settled.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SingleSourceBenchmark {
+    private int next;
+
+    private int query() {
+        return next++ & (BenchmarkGraph.QUERIES - 1);
+    }
+
+    @Benchmark
+    public int[] fullTree(BenchmarkGraph g) {
+        return DijkstrasAlgorithm.distances(g.graph, g.sources[query()]);
+    }
+
+    @Benchmark
+    public int[] distanceMatrix16(BenchmarkGraph g) {
+        int i = query() & ~15;
+        return DistanceMatrix.compute(g.graph, Arrays.copyOfRange(g.sources, i, i + 16),
+                Arrays.copyOfRange(g.targets, i, i + 16));
+    }
+}
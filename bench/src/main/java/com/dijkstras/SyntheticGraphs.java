@@ -0,0 +1,139 @@
+package com.dijkstras;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+// Reproducible benchmark inputs: the same (size, seed) always gives the same graph.
+// All generators produce symmetric graphs (every edge in both directions).
+public class SyntheticGraphs {
+
+    // side x side 4-neighbour grid with weights in [1, 100], road-network like
+    public static CsrGraph grid(int side, long seed) {
+        Random random = new Random(seed);
+        EdgeBuffer edges = new EdgeBuffer();
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int v = y * side + x;
+                if (x + 1 < side) edges.addBoth(v, v + 1, 1 + random.nextInt(100));
+                if (y + 1 < side) edges.addBoth(v, v + side, 1 + random.nextInt(100));
+            }
+        }
+        return edges.build(side * side);
+    }
+
+    // n random points in the unit square, joined when closer than the radius
+    // that gives the requested average degree. Weights are scaled lengths, so
+    // the graph is metric like a road network.
+    public static CsrGraph randomGeometric(int n, double averageDegree, long seed) {
+        Random random = new Random(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int v = 0; v < n; v++) {
+            x[v] = random.nextDouble();
+            y[v] = random.nextDouble();
+        }
+        double radius = Math.sqrt(averageDegree / (Math.PI * n));
+        int cells = Math.max(1, (int) (1 / radius));
+
+        // Bucket the points into radius-sized cells so each point only checks 9 cells
+        int[] cellStart = new int[cells * cells + 1];
+        int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            cellOf[v] = Math.min(cells - 1, (int) (y[v] * cells)) * cells + Math.min(cells - 1, (int) (x[v] * cells));
+            cellStart[cellOf[v] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        for (int v = 0; v < n; v++) {
+            members[fill[cellOf[v]]++] = v;
+        }
+
+        EdgeBuffer edges = new EdgeBuffer();
+        for (int u = 0; u < n; u++) {
+            int cx = cellOf[u] % cells, cy = cellOf[u] / cells;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx, ny = cy + dy;
+                    if (nx < 0 || ny < 0 || nx >= cells || ny >= cells) continue;
+                    int c = ny * cells + nx;
+                    for (int i = cellStart[c]; i < cellStart[c + 1]; i++) {
+                        int v = members[i];
+                        double d = Math.hypot(x[u] - x[v], y[u] - y[v]);
+                        if (v > u && d <= radius) {
+                            edges.addBoth(u, v, 1 + (int) (d * 100_000));
+                        }
+                    }
+                }
+            }
+        }
+        return edges.build(n);
+    }
+
+    // Barabasi-Albert preferential attachment: every new node links to
+    // edgesPerNode existing nodes chosen in proportion to their degree, which
+    // gives a few very high degree hubs as in social or web graphs
+    public static CsrGraph scaleFree(int n, int edgesPerNode, long seed) {
+        Random random = new Random(seed);
+        // Every edge endpoint is listed once, so a uniform pick is degree-proportional
+        int[] endpoints = new int[2 * n * edgesPerNode];
+        int count = 0;
+        EdgeBuffer edges = new EdgeBuffer();
+        int core = Math.min(n, edgesPerNode + 1);
+        for (int u = 0; u < core; u++) {
+            for (int v = u + 1; v < core; v++) {
+                edges.addBoth(u, v, 1 + random.nextInt(100));
+                endpoints[count++] = u;
+                endpoints[count++] = v;
+            }
+        }
+        for (int u = core; u < n; u++) {
+            for (int k = 0; k < edgesPerNode; k++) {
+                int v = endpoints[random.nextInt(count)];
+                edges.addBoth(u, v, 1 + random.nextInt(100));
+                endpoints[count++] = u;
+                endpoints[count++] = v;
+            }
+        }
+        return edges.build(n);
+    }
+
+    // A graph from disk: DIMACS or edge lists are imported, anything else is
+    // taken to be a mapped GraphFile
+    public static CsrGraph load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gr") || name.endsWith(".csv") || name.endsWith(".txt")) {
+            return GraphImporter.read(file).graph;
+        }
+        return GraphFile.open(file).graph();
+    }
+
+    private static class EdgeBuffer {
+        int[] src = new int[1024], dest = new int[1024], wt = new int[1024];
+        int size;
+
+        void addBoth(int u, int v, int w) {
+            add(u, v, w);
+            add(v, u, w);
+        }
+
+        void add(int u, int v, int w) {
+            if (size == src.length) {
+                src = Arrays.copyOf(src, size * 2);
+                dest = Arrays.copyOf(dest, size * 2);
+                wt = Arrays.copyOf(wt, size * 2);
+            }
+            src[size] = u;
+            dest[size] = v;
+            wt[size++] = w;
+        }
+
+        CsrGraph build(int n) {
+            return CsrGraph.fromEdges(n, Arrays.copyOf(src, size), Arrays.copyOf(dest, size), Arrays.copyOf(wt, size));
+        }
+    }
+}
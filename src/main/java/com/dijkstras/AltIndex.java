@@ -0,0 +1,172 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// ALT lower bounds (A*, Landmarks, Triangle inequality). For every landmark L the
+// index stores d(L, v) and d(v, L); by the triangle inequality
+//     d(v, t) >= d(v, L) - d(t, L)   and   d(v, t) >= d(L, t) - d(L, v)
+// which gives a consistent A* heuristic for point-to-point queries.
+public class AltIndex {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final int[] landmarks;
+    private final int[][] fromLandmark; // fromLandmark[i][v] = d(landmarks[i], v)
+    private final int[][] toLandmark;   // toLandmark[i][v] = d(v, landmarks[i])
+    private IndexedHeap pq; // for edgeAdded, created on first use
+
+    private AltIndex(int[] landmarks, int[][] fromLandmark, int[][] toLandmark) {
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    // Farthest-point selection: each new landmark is the node farthest from all
+    // landmarks chosen so far. Unreachable nodes count as farthest, so every
+    // component that is large enough to matter gets a landmark.
+    public static AltIndex build(CsrGraph graph, CsrGraph reverse, int count) {
+        int n = graph.nodeCount();
+        count = Math.min(count, n);
+        int[] landmarks = new int[count];
+        int[][] from = new int[count][];
+        long[] nearest = new long[n];
+        Arrays.fill(nearest, Long.MAX_VALUE);
+
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            from[i] = DijkstrasAlgorithm.distances(graph, next);
+            long farthest = -1;
+            for (int v = 0; v < n; v++) {
+                nearest[v] = Math.min(nearest[v], from[i][v]);
+                if (nearest[v] > farthest) {
+                    farthest = nearest[v];
+                    next = v;
+                }
+            }
+        }
+        return new AltIndex(landmarks, from, backwardDistances(reverse, landmarks));
+    }
+
+    // Planar selection: split the plane around the centre of the nodes into count
+    // equal sectors and take the node farthest from the centre in each one.
+    // Both distance arrays are then computed in parallel.
+    public static AltIndex buildPlanar(CsrGraph graph, CsrGraph reverse, double[] x, double[] y, int count) {
+        int n = graph.nodeCount();
+        double cx = 0, cy = 0;
+        for (int v = 0; v < n; v++) {
+            cx += x[v];
+            cy += y[v];
+        }
+        cx /= Math.max(1, n);
+        cy /= Math.max(1, n);
+
+        int[] best = new int[count];
+        double[] bestDist = new double[count];
+        Arrays.fill(best, -1);
+        for (int v = 0; v < n; v++) {
+            double angle = Math.atan2(y[v] - cy, x[v] - cx) + Math.PI;
+            int sector = Math.min(count - 1, (int) (angle / (2 * Math.PI) * count));
+            double d = Math.hypot(x[v] - cx, y[v] - cy);
+            if (best[sector] == -1 || d > bestDist[sector]) {
+                best[sector] = v;
+                bestDist[sector] = d;
+            }
+        }
+        int[] landmarks = Arrays.stream(best).filter(v -> v != -1).toArray();
+
+        int[][] from = new int[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel()
+                .forEach(i -> from[i] = DijkstrasAlgorithm.distances(graph, landmarks[i]));
+        return new AltIndex(landmarks, from, backwardDistances(reverse, landmarks));
+    }
+
+    private static int[][] backwardDistances(CsrGraph reverse, int[] landmarks) {
+        int[][] to = new int[landmarks.length][];
+        IntStream.range(0, landmarks.length).parallel()
+                .forEach(i -> to[i] = DijkstrasAlgorithm.distances(reverse, landmarks[i]));
+        return to;
+    }
+
+    public int[] landmarks() {
+        return landmarks.clone();
+    }
+
+    // Largest triangle-inequality bound on d(v, dest) over all landmarks
+    public int lowerBound(int v, int dest) {
+        int best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            int[] to = toLandmark[i];
+            if (to[v] != INF && to[dest] != INF) {
+                best = Math.max(best, to[v] - to[dest]);
+            }
+            int[] from = fromLandmark[i];
+            if (from[v] != INF && from[dest] != INF) {
+                best = Math.max(best, from[dest] - from[v]);
+            }
+        }
+        return best;
+    }
+
+    public DijkstrasAlgorithm.Result query(CsrGraph graph, int src, int dest) {
+        return DijkstrasAlgorithm.aStar(graph, src, dest, v -> lowerBound(v, dest));
+    }
+
+    // Refresh the bounds after the edge src -> dest with weight wt was added to
+    // graph, which must already contain it. Adding an edge can only shorten
+    // distances, so only nodes whose distance drops are revisited: forwards along
+    // out-edges for d(L, v), backwards along in-edges for d(v, L).
+    // Queries must not run while the refresh is in progress.
+    public synchronized void edgeAdded(GraphStore graph, int src, int dest, int wt) {
+        ensureCapacity(graph.nodeCount());
+        for (int i = 0; i < landmarks.length; i++) {
+            int[] from = fromLandmark[i];
+            if (from[src] != INF && from[src] + wt < from[dest]) {
+                from[dest] = from[src] + wt;
+                propagate(graph, from, dest, true);
+            }
+            int[] to = toLandmark[i];
+            if (to[dest] != INF && to[dest] + wt < to[src]) {
+                to[src] = to[dest] + wt;
+                propagate(graph, to, src, false);
+            }
+        }
+    }
+
+    // Nodes added since the index was built start out unreachable. Grows by
+    // doubling, so calling it once per added node stays O(1) amortized.
+    public synchronized void ensureCapacity(int n) {
+        int old = fromLandmark.length > 0 ? fromLandmark[0].length : 0;
+        if (old >= n) {
+            return;
+        }
+        int capacity = Math.max(n, old * 2);
+        for (int i = 0; i < landmarks.length; i++) {
+            fromLandmark[i] = Arrays.copyOf(fromLandmark[i], capacity);
+            toLandmark[i] = Arrays.copyOf(toLandmark[i], capacity);
+            Arrays.fill(fromLandmark[i], old, capacity, INF);
+            Arrays.fill(toLandmark[i], old, capacity, INF);
+        }
+    }
+
+    // Dijkstra restricted to the nodes whose distance improves, starting at start
+    private void propagate(GraphStore graph, int[] dist, int start, boolean forward) {
+        if (pq == null || pq.capacity() < dist.length) {
+            pq = new IndexedHeap(dist.length);
+        }
+        pq.decreaseKey(start, dist[start]);
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            int du = dist[u];
+            int degree = forward ? graph.degree(u) : graph.inDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = forward ? graph.target(u, i) : graph.source(u, i);
+                int nd = du + (forward ? graph.weight(u, i) : graph.inWeight(u, i));
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    pq.decreaseKey(v, nd);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+
+// Dial's bucket queue for non-negative integer weights bounded by maxWeight.
+// Keys in the queue always lie within [cursor, cursor + maxWeight], so a ring of
+// maxWeight + 1 buckets suffices. Buckets are intrusive doubly linked lists over
+// node ids, which makes insert, decrease-key and poll allocation-free.
+class BucketQueue implements NodeQueue {
+    private final int[] head;  // first node of each bucket, -1 when empty
+    private final int[] next;
+    private final int[] prev;
+    private final int[] keys;  // key of each queued node, -1 when absent
+    private int cursor;        // last polled key, a lower bound on queued keys
+    private int size;
+
+    public BucketQueue(int capacity, int maxWeight) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("Bucket queue needs non-negative weights");
+        }
+        this.head = new int[maxWeight + 1];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        Arrays.fill(head, -1);
+        Arrays.fill(keys, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return keys[node] != -1;
+    }
+
+    @Override
+    public void decreaseKey(int node, int key) {
+        if (size == 0) {
+            // Only the last polled key bounds new keys; re-anchor when out of range
+            if (key < cursor || key - cursor >= head.length) cursor = key;
+        } else if (key < cursor || key - cursor >= head.length) {
+            throw new IllegalArgumentException("Key " + key + " outside bucket range");
+        }
+        int old = keys[node];
+        if (old != -1) {
+            if (key >= old) return;
+            unlink(node, old);
+        } else {
+            size++;
+        }
+        int b = key % head.length;
+        keys[node] = key;
+        prev[node] = -1;
+        next[node] = head[b];
+        if (head[b] != -1) prev[head[b]] = node;
+        head[b] = node;
+    }
+
+    @Override
+    public int minKey() {
+        advance();
+        return cursor;
+    }
+
+    @Override
+    public int poll() {
+        advance();
+        int node = head[cursor % head.length];
+        unlink(node, cursor);
+        keys[node] = -1;
+        size--;
+        return node;
+    }
+
+    @Override
+    public void clear() {
+        for (int b = 0; b < head.length && size > 0; b++) {
+            for (int node = head[b]; node != -1; node = next[node]) {
+                keys[node] = -1;
+                size--;
+            }
+            head[b] = -1;
+        }
+        size = 0;
+    }
+
+    private void advance() {
+        while (head[cursor % head.length] == -1) {
+            cursor++;
+        }
+    }
+
+    private void unlink(int node, int key) {
+        int b = key % head.length;
+        if (prev[node] != -1) next[prev[node]] = next[node];
+        else head[b] = next[node];
+        if (next[node] != -1) prev[next[node]] = prev[node];
+    }
+}
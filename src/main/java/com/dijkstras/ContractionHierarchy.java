@@ -0,0 +1,624 @@
+package com.dijkstras;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Contraction Hierarchies. Nodes are contracted from least to most important and
+// shortcut edges keep the distances between the remaining nodes intact. A query
+// then only relaxes edges towards more important nodes, forward from the source
+// and backward from the target, which settles a tiny part of the graph.
+public class ContractionHierarchy {
+    private static final int FILE_MAGIC = 0x43484731; // "CHG1"
+    private static final int FILE_VERSION = 1;
+    // Witness searches give up after this many settled nodes and add the shortcut;
+    // priority estimates use a smaller budget since they are only a ranking
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+    private static final int ESTIMATE_SETTLE_LIMIT = 20;
+
+    private final int[] rank;
+    private final CsrGraph up;       // u -> v with rank[v] > rank[u]
+    private final int[] upMiddle;    // node bypassed by a shortcut, -1 for original edges
+    private final CsrGraph down;     // v -> u for each edge u -> v with rank[u] > rank[v]
+    private final int[] downMiddle;
+    private final ThreadLocal<QueryState> queryState;
+
+    ContractionHierarchy(int[] rank, CsrGraph up, int[] upMiddle, CsrGraph down, int[] downMiddle) {
+        this.rank = rank;
+        this.up = up;
+        this.upMiddle = upMiddle;
+        this.down = down;
+        this.downMiddle = downMiddle;
+        this.queryState = ThreadLocal.withInitial(() -> new QueryState(rank.length));
+    }
+
+    // Contract every node of graph. Witness searches run in parallel, one
+    // independent set of nodes per round.
+    public static ContractionHierarchy build(CsrGraph graph) {
+        return new Builder(graph).build();
+    }
+
+    public int nodeCount() {
+        return rank.length;
+    }
+
+    public int shortcutCount() {
+        int count = 0;
+        for (int mid : upMiddle) if (mid != -1) count++;
+        for (int mid : downMiddle) if (mid != -1) count++;
+        return count;
+    }
+
+    public int distance(int src, int dest) {
+        return query(src, dest).distance;
+    }
+
+    // Upward search from src over up and from dest over down. Shortcuts on the
+    // best path are unpacked, so the path only contains original edges.
+    public DijkstrasAlgorithm.Result query(int src, int dest) {
+        QueryState q = queryState.get();
+        q.reset();
+        q.visit(src, true, 0, -1, -1);
+        q.visit(dest, false, 0, -1, -1);
+
+        long best = Long.MAX_VALUE;
+        int meet = -1;
+        int settled = 0;
+
+        while (true) {
+            boolean fwdOpen = !q.forward.isEmpty() && q.forward.minKey() < best;
+            boolean bwdOpen = !q.backward.isEmpty() && q.backward.minKey() < best;
+            if (!fwdOpen && !bwdOpen) break;
+            boolean fwd = fwdOpen && (!bwdOpen || q.forward.minKey() <= q.backward.minKey());
+
+            IndexedHeap pq = fwd ? q.forward : q.backward;
+            int[] dist = fwd ? q.distF : q.distB;
+            int[] other = fwd ? q.distB : q.distF;
+            CsrGraph g = fwd ? up : down;
+            CsrGraph opposite = fwd ? down : up;
+
+            int u = pq.poll();
+            settled++;
+            int du = dist[u];
+            if (other[u] != Integer.MAX_VALUE && (long) du + other[u] < best) {
+                best = (long) du + other[u];
+                meet = u;
+            }
+            if (isStalled(opposite, dist, u, du)) continue;
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                int nd = du + g.weight(e);
+                if (nd < dist[v]) {
+                    q.visit(v, fwd, nd, u, e);
+                }
+            }
+        }
+
+        ArrayList<Integer> path = new ArrayList<>();
+        if (meet != -1) {
+            unpackPath(q, src, meet, path);
+        }
+        DijkstrasAlgorithm.Result result = new DijkstrasAlgorithm.Result(meet == -1 ? -1 : (int) best, path);
+        result.settled = settled;
+        return result;
+    }
+
+    // Stall-on-demand: u cannot lie on a shortest upward path if a more important
+    // neighbour already reaches it more cheaply, so its edges need not be relaxed
+    private static boolean isStalled(CsrGraph opposite, int[] dist, int u, int du) {
+        for (int e = opposite.begin(u), end = opposite.end(u); e < end; e++) {
+            int x = opposite.target(e);
+            if (dist[x] != Integer.MAX_VALUE && dist[x] + opposite.weight(e) < du) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unpackPath(QueryState q, int src, int meet, ArrayList<Integer> path) {
+        // Collect the forward edges from meet back to src, then emit them in order
+        int hops = 0;
+        for (int v = meet; v != src; v = q.parentF[v]) {
+            hops++;
+        }
+        int[] forwardEdges = new int[hops];
+        for (int v = meet, i = hops - 1; v != src; v = q.parentF[v], i--) {
+            forwardEdges[i] = q.parentEdgeF[v];
+        }
+
+        path.add(src);
+        int[] stack = new int[64];
+        int u = src;
+        for (int e : forwardEdges) {
+            int v = up.target(e);
+            stack = unpackEdge(u, v, upMiddle[e], stack, path);
+            u = v;
+        }
+        // Backward edges lead from meet towards dest
+        for (int v = meet; q.parentB[v] != -1; v = q.parentB[v]) {
+            stack = unpackEdge(v, q.parentB[v], downMiddle[q.parentEdgeB[v]], stack, path);
+        }
+    }
+
+    // Append the original nodes of edge u -> v (excluding u) to path
+    private int[] unpackEdge(int u, int v, int mid, int[] stack, ArrayList<Integer> path) {
+        int top = 0;
+        stack[top++] = u;
+        stack[top++] = v;
+        stack[top++] = mid;
+        while (top > 0) {
+            int m = stack[--top];
+            int b = stack[--top];
+            int a = stack[--top];
+            if (m == -1) {
+                path.add(b);
+                continue;
+            }
+            if (top + 6 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            // a -> m is stored in down at m (m ranks below a), m -> b in up at m.
+            // Push the second half first so the first half is expanded first.
+            stack[top++] = m;
+            stack[top++] = b;
+            stack[top++] = middleOf(up, upMiddle, m, b);
+            stack[top++] = a;
+            stack[top++] = m;
+            stack[top++] = middleOf(down, downMiddle, m, a);
+        }
+        return stack;
+    }
+
+    private static int middleOf(CsrGraph g, int[] middle, int node, int target) {
+        int best = -1;
+        for (int e = g.begin(node), end = g.end(node); e < end; e++) {
+            if (g.target(e) == target && (best == -1 || g.weight(e) < g.weight(best))) {
+                best = e;
+            }
+        }
+        if (best == -1) {
+            throw new IllegalStateException("Missing edge while unpacking shortcut " + node + "-" + target);
+        }
+        return middle[best];
+    }
+
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(rank.length);
+            writeInts(out, rank);
+            writeGraph(out, up, upMiddle);
+            writeGraph(out, down, downMiddle);
+        }
+    }
+
+    public static ContractionHierarchy load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a contraction hierarchy file: " + file);
+            }
+            int version = in.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unsupported contraction hierarchy version " + version);
+            }
+            int n = in.readInt();
+            int[] rank = readInts(in, n);
+            int[][] upParts = readGraph(in, n);
+            int[][] downParts = readGraph(in, n);
+            return new ContractionHierarchy(rank,
+                    CsrGraph.of(upParts[0], upParts[1], upParts[2]), upParts[3],
+                    CsrGraph.of(downParts[0], downParts[1], downParts[2]), downParts[3]);
+        }
+    }
+
+    private static void writeGraph(DataOutputStream out, CsrGraph g, int[] middle) throws IOException {
+        out.writeInt(g.edgeCount());
+        for (int v = 0; v < g.nodeCount(); v++) out.writeInt(g.begin(v));
+        out.writeInt(g.edgeCount());
+        for (int e = 0; e < g.edgeCount(); e++) out.writeInt(g.target(e));
+        for (int e = 0; e < g.edgeCount(); e++) out.writeInt(g.weight(e));
+        writeInts(out, middle);
+    }
+
+    private static int[][] readGraph(DataInputStream in, int n) throws IOException {
+        int m = in.readInt();
+        return new int[][] {readInts(in, n + 1), readInts(in, m), readInts(in, m), readInts(in, m)};
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int v : values) out.writeInt(v);
+    }
+
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) values[i] = in.readInt();
+        return values;
+    }
+
+    // Per-thread search state. Only touched nodes are reset between queries.
+    private static class QueryState {
+        final int[] distF, distB;
+        final int[] parentF, parentB;
+        final int[] parentEdgeF, parentEdgeB;
+        final IndexedHeap forward, backward;
+        int[] touched = new int[256];
+        int touchedCount;
+
+        QueryState(int n) {
+            distF = new int[n];
+            distB = new int[n];
+            parentF = new int[n];
+            parentB = new int[n];
+            parentEdgeF = new int[n];
+            parentEdgeB = new int[n];
+            Arrays.fill(distF, Integer.MAX_VALUE);
+            Arrays.fill(distB, Integer.MAX_VALUE);
+            forward = new IndexedHeap(n);
+            backward = new IndexedHeap(n);
+        }
+
+        void visit(int v, boolean fwd, int dist, int parent, int edge) {
+            if (distF[v] == Integer.MAX_VALUE && distB[v] == Integer.MAX_VALUE) {
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                touched[touchedCount++] = v;
+            }
+            if (fwd) {
+                distF[v] = dist;
+                parentF[v] = parent;
+                parentEdgeF[v] = edge;
+                forward.decreaseKey(v, dist);
+            } else {
+                distB[v] = dist;
+                parentB[v] = parent;
+                parentEdgeB[v] = edge;
+                backward.decreaseKey(v, dist);
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                int v = touched[i];
+                distF[v] = Integer.MAX_VALUE;
+                distB[v] = Integer.MAX_VALUE;
+            }
+            touchedCount = 0;
+            forward.clear();
+            backward.clear();
+        }
+    }
+
+    // Preprocessing state: a mutable copy of the graph that gains shortcuts as
+    // nodes are contracted. Contracted nodes are detached from their neighbours.
+    private static class Builder {
+        final int n;
+        final int[][] outTo, outW, outMid;
+        final int[][] inFrom, inW, inMid;
+        final int[] outDeg, inDeg;
+        final boolean[] contracted;
+        final boolean[] inBatch;
+        final int[] priority;
+        final int[] contractedNeighbors;
+        final ThreadLocal<WitnessSearch> witness;
+        final EdgeList upEdges = new EdgeList();
+        final EdgeList downEdges = new EdgeList();
+
+        Builder(CsrGraph graph) {
+            n = graph.nodeCount();
+            outTo = new int[n][];
+            outW = new int[n][];
+            outMid = new int[n][];
+            inFrom = new int[n][];
+            inW = new int[n][];
+            inMid = new int[n][];
+            outDeg = new int[n];
+            inDeg = new int[n];
+            contracted = new boolean[n];
+            inBatch = new boolean[n];
+            priority = new int[n];
+            contractedNeighbors = new int[n];
+            witness = ThreadLocal.withInitial(() -> new WitnessSearch(n));
+
+            int[] inCount = new int[n];
+            for (int e = 0; e < graph.edgeCount(); e++) inCount[graph.target(e)]++;
+            for (int v = 0; v < n; v++) {
+                int outCount = Math.max(1, graph.end(v) - graph.begin(v));
+                outTo[v] = new int[outCount];
+                outW[v] = new int[outCount];
+                outMid[v] = new int[outCount];
+                inFrom[v] = new int[Math.max(1, inCount[v])];
+                inW[v] = new int[inFrom[v].length];
+                inMid[v] = new int[inFrom[v].length];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                    addEdge(u, graph.target(e), graph.weight(e), -1);
+                }
+            }
+        }
+
+        ContractionHierarchy build() {
+            int[] rank = new int[n];
+            IntStream.range(0, n).parallel().forEach(v -> priority[v] = computePriority(v));
+
+            int[] remaining = new int[n];
+            for (int v = 0; v < n; v++) remaining[v] = v;
+            int remainingCount = n;
+            int nextRank = 0;
+            int round = 0;
+            int[] mark = new int[n];
+
+            while (remainingCount > 0) {
+                round++;
+                // Nodes whose priority is a strict local minimum form an independent set
+                int[] rem = remaining;
+                int[] batch = IntStream.range(0, remainingCount).parallel()
+                        .map(i -> rem[i]).filter(this::isLocalMinimum).toArray();
+                for (int v : batch) inBatch[v] = true;
+
+                // Witness searches avoid every batch node, so contracting them together is safe
+                int[][] shortcuts = Arrays.stream(batch).parallel()
+                        .mapToObj(v -> findShortcuts(v, WITNESS_SETTLE_LIMIT)).toArray(int[][]::new);
+
+                // Neighbours of contracted nodes get a new priority
+                int touchedCount = 0;
+                int[] touched = new int[Math.min(n, 16 + batch.length * 8)];
+                for (int i = 0; i < batch.length; i++) {
+                    int v = batch[i];
+                    for (int pass = 0; pass < 2; pass++) {
+                        int[] adj = pass == 0 ? outTo[v] : inFrom[v];
+                        int deg = pass == 0 ? outDeg[v] : inDeg[v];
+                        for (int j = 0; j < deg; j++) {
+                            int u = adj[j];
+                            contractedNeighbors[u]++;
+                            if (mark[u] != round) {
+                                mark[u] = round;
+                                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                                touched[touchedCount++] = u;
+                            }
+                        }
+                    }
+                    contract(v);
+                    int[] s = shortcuts[i];
+                    for (int j = 0; j < s.length; j += 3) {
+                        addEdge(s[j], s[j + 1], s[j + 2], v);
+                    }
+                    inBatch[v] = false;
+                    rank[v] = nextRank++;
+                }
+                int[] updated = touched;
+                IntStream.range(0, touchedCount).parallel()
+                        .forEach(i -> priority[updated[i]] = computePriority(updated[i]));
+
+                int kept = 0;
+                for (int i = 0; i < remainingCount; i++) {
+                    if (!contracted[remaining[i]]) remaining[kept++] = remaining[i];
+                }
+                remainingCount = kept;
+            }
+            return new ContractionHierarchy(rank,
+                    upEdges.toCsr(n), upEdges.middles(n), downEdges.toCsr(n), downEdges.middles(n));
+        }
+
+        // Move the remaining edges of v into the hierarchy and detach v from its
+        // neighbours, so later searches never see it
+        private void contract(int v) {
+            contracted[v] = true;
+            for (int i = 0; i < outDeg[v]; i++) {
+                int w = outTo[v][i];
+                upEdges.add(v, w, outW[v][i], outMid[v][i]);
+                removeEntry(inFrom[w], inW[w], inMid[w], inDeg, w, v);
+            }
+            for (int i = 0; i < inDeg[v]; i++) {
+                int u = inFrom[v][i];
+                downEdges.add(v, u, inW[v][i], inMid[v][i]);
+                removeEntry(outTo[u], outW[u], outMid[u], outDeg, u, v);
+            }
+            outDeg[v] = 0;
+            inDeg[v] = 0;
+        }
+
+        private static void removeEntry(int[] to, int[] w, int[] mid, int[] deg, int node, int target) {
+            for (int i = 0; i < deg[node]; i++) {
+                if (to[i] == target) {
+                    int last = --deg[node];
+                    to[i] = to[last];
+                    w[i] = w[last];
+                    mid[i] = mid[last];
+                    return;
+                }
+            }
+        }
+
+        private boolean isLocalMinimum(int v) {
+            for (int pass = 0; pass < 2; pass++) {
+                int[] adj = pass == 0 ? outTo[v] : inFrom[v];
+                int deg = pass == 0 ? outDeg[v] : inDeg[v];
+                for (int i = 0; i < deg; i++) {
+                    int u = adj[i];
+                    if (priority[u] < priority[v] || (priority[u] == priority[v] && u < v)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        // Edge difference plus the number of already contracted neighbours
+        private int computePriority(int v) {
+            int added = findShortcuts(v, ESTIMATE_SETTLE_LIMIT).length / 3;
+            return added - outDeg[v] - inDeg[v] + contractedNeighbors[v];
+        }
+
+        // Shortcuts needed to contract v, as (from, to, weight) triples
+        private int[] findShortcuts(int v, int settleLimit) {
+            WitnessSearch ws = witness.get();
+            int[] result = new int[0];
+            int count = 0;
+
+            int targets = outDeg[v];
+            if (targets == 0) return result;
+            int maxOut = 0;
+            for (int i = 0; i < targets; i++) {
+                maxOut = Math.max(maxOut, outW[v][i]);
+            }
+            ws.markTargets(outTo[v], targets);
+
+            for (int i = 0; i < inDeg[v]; i++) {
+                int u = inFrom[v][i];
+                int viaU = inW[v][i];
+                ws.run(this, u, v, viaU + maxOut, targets, settleLimit);
+                for (int j = 0; j < outDeg[v]; j++) {
+                    int w = outTo[v][j];
+                    if (w == u) continue;
+                    int via = viaU + outW[v][j];
+                    if (ws.distance(w) > via) {
+                        if (count + 3 > result.length) result = Arrays.copyOf(result, Math.max(12, result.length * 2));
+                        result[count++] = u;
+                        result[count++] = w;
+                        result[count++] = via;
+                    }
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        // Insert u -> v, or lower the weight of an existing u -> v edge
+        private void addEdge(int u, int v, int w, int mid) {
+            if (u == v) return;
+            for (int i = 0; i < outDeg[u]; i++) {
+                if (outTo[u][i] == v) {
+                    if (w < outW[u][i]) {
+                        outW[u][i] = w;
+                        outMid[u][i] = mid;
+                        for (int j = 0; j < inDeg[v]; j++) {
+                            if (inFrom[v][j] == u) {
+                                inW[v][j] = w;
+                                inMid[v][j] = mid;
+                                break;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (outDeg[u] == outTo[u].length) {
+                outTo[u] = Arrays.copyOf(outTo[u], outDeg[u] * 2);
+                outW[u] = Arrays.copyOf(outW[u], outDeg[u] * 2);
+                outMid[u] = Arrays.copyOf(outMid[u], outDeg[u] * 2);
+            }
+            outTo[u][outDeg[u]] = v;
+            outW[u][outDeg[u]] = w;
+            outMid[u][outDeg[u]++] = mid;
+
+            if (inDeg[v] == inFrom[v].length) {
+                inFrom[v] = Arrays.copyOf(inFrom[v], inDeg[v] * 2);
+                inW[v] = Arrays.copyOf(inW[v], inDeg[v] * 2);
+                inMid[v] = Arrays.copyOf(inMid[v], inDeg[v] * 2);
+            }
+            inFrom[v][inDeg[v]] = u;
+            inW[v][inDeg[v]] = w;
+            inMid[v][inDeg[v]++] = mid;
+        }
+    }
+
+    // Growable (src, dest, weight, middle) list used to emit the final graphs
+    private static class EdgeList {
+        int[] src = new int[1024], dest = new int[1024], weight = new int[1024], middle = new int[1024];
+        int size;
+
+        void add(int s, int d, int w, int mid) {
+            if (size == src.length) {
+                src = Arrays.copyOf(src, size * 2);
+                dest = Arrays.copyOf(dest, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                middle = Arrays.copyOf(middle, size * 2);
+            }
+            src[size] = s;
+            dest[size] = d;
+            weight[size] = w;
+            middle[size++] = mid;
+        }
+
+        CsrGraph toCsr(int n) {
+            return CsrGraph.fromEdges(n, Arrays.copyOf(src, size), Arrays.copyOf(dest, size), Arrays.copyOf(weight, size));
+        }
+
+        // Middles in the same order CsrGraph.fromEdges gives the edges
+        int[] middles(int n) {
+            int[] next = new int[n + 1];
+            for (int i = 0; i < size; i++) next[src[i] + 1]++;
+            for (int v = 0; v < n; v++) next[v + 1] += next[v];
+            int[] out = new int[size];
+            for (int i = 0; i < size; i++) out[next[src[i]]++] = middle[i];
+            return out;
+        }
+    }
+
+    // Bounded Dijkstra from one in-neighbour of the node being contracted
+    private static class WitnessSearch {
+        final int[] dist;
+        final IndexedHeap pq;
+        final int[] targetStamp; // nodes whose witness distance is wanted in this round
+        int stamp;
+        int[] touched = new int[64];
+        int touchedCount;
+
+        WitnessSearch(int n) {
+            dist = new int[n];
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            pq = new IndexedHeap(n);
+            targetStamp = new int[n];
+        }
+
+        void markTargets(int[] nodes, int count) {
+            stamp++;
+            for (int i = 0; i < count; i++) targetStamp[nodes[i]] = stamp;
+        }
+
+        int distance(int v) {
+            return dist[v];
+        }
+
+        // Stops early once every marked target is settled (targets counts them,
+        // a target equal to src or to avoid just keeps the search running longer)
+        void run(Builder b, int src, int avoid, int maxDist, int targets, int settleLimit) {
+            for (int i = 0; i < touchedCount; i++) dist[touched[i]] = Integer.MAX_VALUE;
+            touchedCount = 0;
+            pq.clear();
+
+            set(src, 0);
+            int settled = 0;
+            while (!pq.isEmpty() && settled < settleLimit) {
+                int u = pq.poll();
+                settled++;
+                int du = dist[u];
+                if (du > maxDist) break;
+                if (targetStamp[u] == stamp && --targets == 0) break;
+                int[] to = b.outTo[u], wt = b.outW[u];
+                for (int i = 0, deg = b.outDeg[u]; i < deg; i++) {
+                    int v = to[i];
+                    if (v == avoid || b.inBatch[v]) continue;
+                    int nd = du + wt[i];
+                    if (nd < dist[v]) set(v, nd);
+                }
+            }
+        }
+
+        private void set(int v, int d) {
+            if (dist[v] == Integer.MAX_VALUE) {
+                if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                touched[touchedCount++] = v;
+            }
+            dist[v] = d;
+            pq.decreaseKey(v, d);
+        }
+    }
+}
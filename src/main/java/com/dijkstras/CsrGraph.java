@@ -0,0 +1,147 @@
+package com.dijkstras;
+
+import java.util.ArrayList;
+
+// Immutable compressed sparse row graph. The out-edges of node v are the edge
+// indices begin(v) .. end(v) - 1, and target(e) / weight(e) describe edge e, so a
+// search only ever reads primitive storage. The arrays live either on the heap
+// (of, fromEdges, ...) or in a memory-mapped GraphFile.
+public abstract class CsrGraph {
+    private int maxWeight = -1; // computed on first use
+
+    public static CsrGraph of(int[] offsets, int[] targets, int[] weights) {
+        return new ArrayGraph(offsets, targets, weights);
+    }
+
+    // Build from the adjacency lists used by GraphGUI
+    public static CsrGraph fromAdjacency(ArrayList<GraphGUI.Edge>[] graph) {
+        int n = graph.length;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph[v].size();
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int e = offsets[v];
+            for (GraphGUI.Edge edge : graph[v]) {
+                targets[e] = edge.dest;
+                weights[e] = edge.wt;
+                e++;
+            }
+        }
+        return of(offsets, targets, weights);
+    }
+
+    // Build directly from parallel edge arrays (src[i] -> dest[i] with weight wt[i])
+    public static CsrGraph fromEdges(int nodeCount, int[] src, int[] dest, int[] wt) {
+        int m = src.length;
+        int[] offsets = new int[nodeCount + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[src[i] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // Counting sort by source keeps the input order within each node
+        int[] next = new int[nodeCount];
+        System.arraycopy(offsets, 0, next, 0, nodeCount);
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (int i = 0; i < m; i++) {
+            int e = next[src[i]]++;
+            targets[e] = dest[i];
+            weights[e] = wt[i];
+        }
+        return of(offsets, targets, weights);
+    }
+
+    // Same nodes with every edge flipped, for backward searches
+    public CsrGraph reverse() {
+        int n = nodeCount();
+        int m = edgeCount();
+        int[] src = new int[m];
+        int[] dest = new int[m];
+        int[] wt = new int[m];
+        for (int v = 0; v < n; v++) {
+            for (int e = begin(v), end = end(v); e < end; e++) {
+                src[e] = target(e);
+                dest[e] = v;
+                wt[e] = weight(e);
+            }
+        }
+        return fromEdges(n, src, dest, wt);
+    }
+
+    public abstract int nodeCount();
+
+    public abstract int edgeCount();
+
+    public abstract int begin(int node);
+
+    public abstract int end(int node);
+
+    public abstract int target(int edge);
+
+    public abstract int weight(int edge);
+
+    public int maxWeight() {
+        if (maxWeight < 0) {
+            int max = 0;
+            for (int e = 0, m = edgeCount(); e < m; e++) {
+                max = Math.max(max, weight(e));
+            }
+            maxWeight = max;
+        }
+        return maxWeight;
+    }
+
+    // Heap-backed storage
+    static final class ArrayGraph extends CsrGraph {
+        final int[] offsets;
+        final int[] targets;
+        final int[] weights;
+
+        ArrayGraph(int[] offsets, int[] targets, int[] weights) {
+            if (offsets.length == 0 || targets.length != weights.length
+                    || offsets[offsets.length - 1] != targets.length) {
+                throw new IllegalArgumentException("Inconsistent CSR arrays");
+            }
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        public int nodeCount() {
+            return offsets.length - 1;
+        }
+
+        @Override
+        public int edgeCount() {
+            return targets.length;
+        }
+
+        @Override
+        public int begin(int node) {
+            return offsets[node];
+        }
+
+        @Override
+        public int end(int node) {
+            return offsets[node + 1];
+        }
+
+        @Override
+        public int target(int edge) {
+            return targets[edge];
+        }
+
+        @Override
+        public int weight(int edge) {
+            return weights[edge];
+        }
+    }
+}
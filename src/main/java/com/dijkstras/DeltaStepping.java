@@ -0,0 +1,195 @@
+package com.dijkstras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+// Parallel single-source search by delta-stepping (Meyer and Sanders). Nodes are
+// kept in buckets of width delta; all nodes of the current bucket are expanded
+// at once, light edges (weight <= delta) until the bucket stays empty, then heavy
+// edges once. Distance and parent are packed into one long per node and lowered
+// with compare-and-set, so concurrent relaxations never tear the two apart.
+public class DeltaStepping {
+    private static final long UNREACHED = pack(Integer.MAX_VALUE, -1);
+    private static final int PARALLEL_THRESHOLD = 512; // smaller frontiers run inline
+    private static final int CHUNK = 256;
+
+    public static DijkstrasAlgorithm.Result shortestPath(CsrGraph graph, int src, int dest, int delta) {
+        return shortestPath(graph, src, dest, delta, ForkJoinPool.commonPool());
+    }
+
+    public static DijkstrasAlgorithm.Result shortestPath(CsrGraph graph, int src, int dest, int delta, ForkJoinPool pool) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException("delta must be positive");
+        }
+        return new Run(graph, delta, pool).search(src, dest);
+    }
+
+    // A reasonable default: the average edge weight
+    public static int defaultDelta(CsrGraph graph) {
+        if (graph.edgeCount() == 0) {
+            return 1;
+        }
+        long sum = 0;
+        for (int e = 0; e < graph.edgeCount(); e++) sum += graph.weight(e);
+        return (int) Math.max(1, sum / graph.edgeCount());
+    }
+
+    private static long pack(int dist, int parent) {
+        return ((long) dist << 32) | (parent & 0xffffffffL);
+    }
+
+    private static int distOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int parentOf(long packed) {
+        return (int) packed;
+    }
+
+    private static class Run {
+        final CsrGraph graph;
+        final int delta;
+        final ForkJoinPool pool;
+        final AtomicLongArray state;
+        final IntList[] buckets; // ring of buckets, bucket b holds keys in [b * delta, (b + 1) * delta)
+        final int[] frontierStamp;
+        final int[] removedStamp;
+        int stamp;
+
+        Run(CsrGraph graph, int delta, ForkJoinPool pool) {
+            this.graph = graph;
+            this.delta = delta;
+            this.pool = pool;
+            int n = graph.nodeCount();
+            state = new AtomicLongArray(n);
+            for (int v = 0; v < n; v++) state.set(v, UNREACHED);
+            // A relaxation lands at most maxWeight past the current bucket
+            buckets = new IntList[graph.maxWeight() / delta + 2];
+            for (int b = 0; b < buckets.length; b++) buckets[b] = new IntList();
+            frontierStamp = new int[n];
+            removedStamp = new int[n];
+        }
+
+        DijkstrasAlgorithm.Result search(int src, int dest) {
+            state.set(src, pack(0, -1));
+            buckets[0].add(src);
+            int queued = 1;
+            int settled = 0;
+            long current = 0; // index of the bucket being processed
+
+            while (queued > 0) {
+                IntList bucket = buckets[(int) (current % buckets.length)];
+                if (bucket.size == 0) {
+                    current++;
+                    continue;
+                }
+                IntList removed = new IntList();
+                int removedMark = ++stamp;
+                while (bucket.size > 0) {
+                    queued -= bucket.size;
+                    // Skip stale entries: nodes that have since moved to a lower bucket
+                    // or were already expanded in this phase
+                    int frontierMark = ++stamp;
+                    IntList frontier = new IntList();
+                    for (int i = 0; i < bucket.size; i++) {
+                        int v = bucket.data[i];
+                        if (distOf(state.get(v)) / delta != current || frontierStamp[v] == frontierMark) continue;
+                        frontierStamp[v] = frontierMark;
+                        frontier.add(v);
+                        if (removedStamp[v] != removedMark) {
+                            removedStamp[v] = removedMark;
+                            removed.add(v);
+                        }
+                    }
+                    bucket.size = 0;
+                    settled += frontier.size;
+                    queued += relaxAll(frontier, true);
+                }
+                queued += relaxAll(removed, false);
+
+                // Everything below the next bucket is final
+                int dd = distOf(state.get(dest));
+                if (dd != Integer.MAX_VALUE && dd / delta <= current) {
+                    break;
+                }
+                current++;
+            }
+            return toResult(dest, settled);
+        }
+
+        // Relax the light or heavy edges of nodes, in parallel for big frontiers,
+        // and file every improved node into its bucket. Returns how many were filed.
+        private int relaxAll(IntList nodes, boolean light) {
+            ArrayList<IntList> improved;
+            if (nodes.size < PARALLEL_THRESHOLD) {
+                improved = new ArrayList<>(Collections.singletonList(relax(nodes, 0, nodes.size, light)));
+            } else {
+                int chunks = (nodes.size + CHUNK - 1) / CHUNK;
+                IntList[] parts = new IntList[chunks];
+                pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+                        parts[c] = relax(nodes, c * CHUNK, Math.min(nodes.size, (c + 1) * CHUNK), light))).join();
+                improved = new ArrayList<>(Arrays.asList(parts));
+            }
+            int filed = 0;
+            for (IntList part : improved) {
+                for (int i = 0; i < part.size; i++) {
+                    int v = part.data[i];
+                    long b = distOf(state.get(v)) / delta;
+                    buckets[(int) (b % buckets.length)].add(v);
+                    filed++;
+                }
+            }
+            return filed;
+        }
+
+        private IntList relax(IntList nodes, int from, int to, boolean light) {
+            IntList improved = new IntList();
+            for (int i = from; i < to; i++) {
+                int u = nodes.data[i];
+                int du = distOf(state.get(u));
+                for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                    int w = graph.weight(e);
+                    if ((w <= delta) != light) continue;
+                    int v = graph.target(e);
+                    long next = pack(du + w, u);
+                    long cur;
+                    while (distOf(cur = state.get(v)) > du + w) {
+                        if (state.compareAndSet(v, cur, next)) {
+                            improved.add(v);
+                            break;
+                        }
+                    }
+                }
+            }
+            return improved;
+        }
+
+        private DijkstrasAlgorithm.Result toResult(int dest, int settled) {
+            ArrayList<Integer> path = new ArrayList<>();
+            int dd = distOf(state.get(dest));
+            if (dd != Integer.MAX_VALUE) {
+                for (int v = dest; v != -1; v = parentOf(state.get(v))) {
+                    path.add(v);
+                }
+                Collections.reverse(path);
+            }
+            DijkstrasAlgorithm.Result result = new DijkstrasAlgorithm.Result(dd != Integer.MAX_VALUE ? dd : -1, path);
+            result.settled = settled;
+            return result;
+        }
+    }
+
+    private static class IntList {
+        int[] data = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+}
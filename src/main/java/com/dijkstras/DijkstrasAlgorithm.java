@@ -1,10 +1,14 @@
 package com.dijkstras;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.PriorityQueue;
 import java.util.Stack;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntUnaryOperator;
 
 public class DijkstrasAlgorithm {
+    static final int CHECK_INTERVAL = 256; // settled nodes between polls of a cancellation flag
 
     static class Pair {
         int node, dist;
@@ -15,9 +19,33 @@ public class DijkstrasAlgorithm {
         }
     }
 
+    // Frontier queue used by the CSR solver, selectable per query
+    enum QueueType {
+        BINARY_HEAP,
+        QUATERNARY_HEAP,
+        BUCKET; // Dial's buckets, for graphs with small integer weights
+
+        NodeQueue create(CsrGraph graph) {
+            return create(graph.nodeCount(), graph.maxWeight());
+        }
+
+        NodeQueue create(int capacity, int maxWeight) {
+            switch (this) {
+                case QUATERNARY_HEAP:
+                    return new IndexedHeap(capacity, 4);
+                case BUCKET:
+                    return new BucketQueue(capacity, maxWeight);
+                default:
+                    return new IndexedHeap(capacity, 2);
+            }
+        }
+    }
+
     static class Result {
         int distance;
         ArrayList<Integer> path;
+        int settled; // nodes taken off the queue, to compare search strategies
+        SearchStats stats; // detailed counters, null unless SolverMetrics is enabled
 
         public Result(int distance, ArrayList<Integer> path) {
             this.distance = distance;
@@ -44,11 +72,14 @@ public class DijkstrasAlgorithm {
         pq.add(new Pair(src, 0));
 
         boolean[] visited = new boolean[graph.length];
+        int settled = 0;
 
         while (!pq.isEmpty()) {
             Pair current = pq.poll();
             if (visited[current.node]) continue;
             visited[current.node] = true;
+            settled++;
+            if (current.node == dest) break; // dest is settled, its distance is final
 
             for (GraphGUI.Edge edge : graph[current.node]) {
                 if (dist[current.node] + edge.wt < dist[edge.dest]) {
@@ -59,20 +90,255 @@ public class DijkstrasAlgorithm {
             }
         }
 
-        // Reconstruct path
+        return buildResult(dist, parent, dest, settled);
+    }
+
+    public static int dijkstra(GraphStore graph, int src, int dest) {
+        Result result = dijkstraWithPath(graph, src, dest);
+        return result.distance;
+    }
+
+    // Search the editable store directly, sized by its real node count
+    public static Result dijkstraWithPath(GraphStore graph, int src, int dest) {
+        int n = graph.nodeCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        dist[src] = 0;
+
+        IndexedHeap pq = new IndexedHeap(n);
+        pq.decreaseKey(src, 0);
+        int settled = 0;
+
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            settled++;
+            if (u == dest) break;
+            int du = dist[u];
+            for (int i = 0, deg = graph.degree(u); i < deg; i++) {
+                int v = graph.target(u, i);
+                int nd = du + graph.weight(u, i);
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    pq.decreaseKey(v, nd);
+                }
+            }
+        }
+
+        return buildResult(dist, parent, dest, settled);
+    }
+
+    public static int dijkstra(CsrGraph graph, int src, int dest) {
+        Result result = dijkstraWithPath(graph, src, dest);
+        return result.distance;
+    }
+
+    public static Result dijkstraWithPath(CsrGraph graph, int src, int dest) {
+        return dijkstraWithPath(graph, src, dest, QueueType.BINARY_HEAP);
+    }
+
+    // Runs in the calling thread's QueryWorkspace, so the cost depends only on
+    // the nodes the search touches
+    public static Result dijkstraWithPath(CsrGraph graph, int src, int dest, QueueType queueType) {
+        QueryWorkspace ws = QueryWorkspace.current(graph.nodeCount());
+        ws.search(graph, src, dest, queueType);
+        return toResult(ws);
+    }
+
+    // Node sequence from src to dest, empty when dest is unreachable
+    public static int[] shortestPath(CsrGraph graph, int src, int dest) {
+        QueryWorkspace ws = QueryWorkspace.current(graph.nodeCount());
+        ws.search(graph, src, dest, QueueType.BINARY_HEAP);
+        return ws.path();
+    }
+
+    // Distances from src to every node, Integer.MAX_VALUE where unreachable
+    public static int[] distances(CsrGraph graph, int src) {
+        return distances(graph, src, () -> false);
+    }
+
+    // As above, but polls cancelled every few hundred settled nodes and returns null once it is set
+    static int[] distances(CsrGraph graph, int src, BooleanSupplier cancelled) {
+        int n = graph.nodeCount();
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[src] = 0;
+
+        IndexedHeap pq = new IndexedHeap(n);
+        pq.decreaseKey(src, 0);
+        int settled = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            if (++settled % CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                return null;
+            }
+            int du = dist[u];
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int v = graph.target(e);
+                int nd = du + graph.weight(e);
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    pq.decreaseKey(v, nd);
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Point-to-point search that grows one frontier forward from src over graph
+    // and one backward from dest over reverse (graph.reverse()). It stops once the
+    // two smallest frontier keys together reach the best meeting distance, since
+    // no unexplored path can then be shorter.
+    public static Result bidirectionalDijkstra(CsrGraph graph, CsrGraph reverse, int src, int dest) {
+        int n = graph.nodeCount();
+        if (src == dest) {
+            ArrayList<Integer> path = new ArrayList<>();
+            path.add(src);
+            return new Result(0, path);
+        }
+
+        int[] distF = new int[n];
+        int[] distB = new int[n];
+        int[] parentF = new int[n];
+        int[] parentB = new int[n]; // next node towards dest
+        for (int i = 0; i < n; i++) {
+            distF[i] = Integer.MAX_VALUE;
+            distB[i] = Integer.MAX_VALUE;
+            parentF[i] = -1;
+            parentB[i] = -1;
+        }
+        distF[src] = 0;
+        distB[dest] = 0;
+
+        IndexedHeap forward = new IndexedHeap(n);
+        IndexedHeap backward = new IndexedHeap(n);
+        forward.decreaseKey(src, 0);
+        backward.decreaseKey(dest, 0);
+
+        int settled = 0;
+        long best = Long.MAX_VALUE;
+        int meetF = -1, meetB = -1; // best path is src..meetF -> meetB..dest
+
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            if ((long) forward.minKey() + backward.minKey() >= best) break;
+
+            // Expand the smaller frontier to keep the two searches balanced
+            boolean fwd = forward.size() <= backward.size();
+            CsrGraph g = fwd ? graph : reverse;
+            NodeQueue pq = fwd ? forward : backward;
+            int[] dist = fwd ? distF : distB;
+            int[] parent = fwd ? parentF : parentB;
+            int[] other = fwd ? distB : distF;
+
+            int u = pq.poll();
+            settled++;
+            int du = dist[u];
+            for (int e = g.begin(u), end = g.end(u); e < end; e++) {
+                int v = g.target(e);
+                int nd = du + g.weight(e);
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    pq.decreaseKey(v, nd);
+                }
+                if (other[v] != Integer.MAX_VALUE && (long) nd + other[v] < best) {
+                    best = (long) nd + other[v];
+                    meetF = fwd ? u : v;
+                    meetB = fwd ? v : u;
+                }
+            }
+        }
+
+        ArrayList<Integer> path = new ArrayList<>();
+        if (meetF == -1) {
+            Result result = new Result(-1, path);
+            result.settled = settled;
+            return result;
+        }
+        Stack<Integer> pathStack = new Stack<>();
+        for (int v = meetF; v != -1; v = parentF[v]) {
+            pathStack.push(v);
+        }
+        while (!pathStack.isEmpty()) {
+            path.add(pathStack.pop());
+        }
+        for (int v = meetB; v != -1; v = parentB[v]) {
+            path.add(v);
+        }
+        Result result = new Result((int) best, path);
+        result.settled = settled;
+        return result;
+    }
+
+    // A* over node coordinates. The heuristic is the straight-line distance to
+    // dest scaled by the smallest weight-per-length ratio of any edge, so it never
+    // overestimates the remaining cost.
+    public static Result aStar(CsrGraph graph, double[] x, double[] y, int src, int dest) {
+        return aStar(graph, x, y, weightPerLengthBound(graph, x, y), src, dest);
+    }
+
+    // Same as above with the ratio from weightPerLengthBound computed once up front
+    public static Result aStar(CsrGraph graph, double[] x, double[] y, double ratio, int src, int dest) {
+        double tx = x[dest], ty = y[dest];
+        return aStar(graph, src, dest, v -> (int) (ratio * Math.hypot(x[v] - tx, y[v] - ty)));
+    }
+
+    // Smallest weight / Euclidean length over all edges of positive length. It is
+    // shrunk slightly so rounding can never make the heuristic inadmissible.
+    public static double weightPerLengthBound(CsrGraph graph, double[] x, double[] y) {
+        double ratio = Double.MAX_VALUE;
+        for (int u = 0; u < graph.nodeCount(); u++) {
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int v = graph.target(e);
+                double len = Math.hypot(x[u] - x[v], y[u] - y[v]);
+                if (len > 0) {
+                    ratio = Math.min(ratio, graph.weight(e) / len);
+                }
+            }
+        }
+        return ratio == Double.MAX_VALUE ? 0 : ratio * (1 - 1e-9);
+    }
+
+    // A* with an arbitrary heuristic, which must be consistent (h(u) <= w(u, v) + h(v))
+    // so that every node is settled at most once
+    public static Result aStar(CsrGraph graph, int src, int dest, IntUnaryOperator heuristic) {
+        QueryWorkspace ws = QueryWorkspace.current(graph.nodeCount());
+        ws.search(graph, src, dest, heuristic);
+        return toResult(ws);
+    }
+
+    private static Result toResult(QueryWorkspace ws) {
+        ArrayList<Integer> path = new ArrayList<>(ws.pathLength());
+        for (int i = 0; i < ws.pathLength(); i++) {
+            path.add(ws.pathNode(i));
+        }
+        Result result = new Result(ws.distance(), path);
+        result.settled = ws.settled();
+        if (SolverMetrics.ENABLED) {
+            result.stats = ws.stats().copy();
+        }
+        return result;
+    }
+
+    static Result buildResult(int[] dist, int[] parent, int dest, int settled) {
+        // Reconstruct path: walk the parents once to size it, then fill it back to front
         ArrayList<Integer> path = new ArrayList<>();
         if (dist[dest] != Integer.MAX_VALUE) {
-            int current = dest;
-            Stack<Integer> pathStack = new Stack<>();
-            while (current != -1) {
-                pathStack.push(current);
-                current = parent[current];
+            int length = 0;
+            for (int v = dest; v != -1; v = parent[v]) {
+                length++;
             }
-            while (!pathStack.isEmpty()) {
-                path.add(pathStack.pop());
+            Integer[] nodes = new Integer[length];
+            for (int v = dest; v != -1; v = parent[v]) {
+                nodes[--length] = v;
             }
+            path = new ArrayList<>(Arrays.asList(nodes));
         }
 
-        return new Result(dist[dest] != Integer.MAX_VALUE ? dist[dest] : -1, path);
+        Result result = new Result(dist[dest] != Integer.MAX_VALUE ? dist[dest] : -1, path);
+        result.settled = settled;
+        return result;
     }
 }
@@ -0,0 +1,116 @@
+package com.dijkstras;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Many-to-many travel times. Each source gets one single-source search that stops
+// once every target is settled, and all targets are read off that search.
+// Sources are spread over a ForkJoinPool, and each row runs in the worker
+// thread's QueryWorkspace, so it costs no O(V) setup.
+public class DistanceMatrix {
+    // Row-major sources.length x targets.length matrix, -1 where no path exists
+    public static int[] compute(CsrGraph graph, int[] sources, int[] targets) {
+        return compute(graph, sources, targets, ForkJoinPool.commonPool());
+    }
+
+    public static int[] compute(CsrGraph graph, int[] sources, int[] targets, ForkJoinPool pool) {
+        return compute(graph, sources, targets, pool, null);
+    }
+
+    // A row's search does not wait for targets that reachability rules out
+    static int[] compute(CsrGraph graph, int[] sources, int[] targets, ForkJoinPool pool,
+                         ReachabilityIndex reachability) {
+        int[] matrix = new int[sources.length * targets.length];
+        if (sources.length > 0) {
+            pool.invoke(new RowTask(graph, sources, targets, matrix, 0, sources.length, reachability));
+        }
+        return matrix;
+    }
+
+    // Fill one row of the matrix using the calling thread's workspace
+    static void computeRow(CsrGraph graph, int src, int[] targets, int[] matrix, int offset) {
+        computeRow(graph, src, targets, matrix, offset, null);
+    }
+
+    static void computeRow(CsrGraph graph, int src, int[] targets, int[] matrix, int offset,
+                           ReachabilityIndex reachability) {
+        QueryWorkspace ws = QueryWorkspace.current(graph.nodeCount());
+        int gen = search(ws, graph, src, targets, reachability);
+        int[] dist = ws.dist(), stamps = ws.stamps();
+        for (int j = 0; j < targets.length; j++) {
+            int t = targets[j];
+            matrix[offset + j] = stamps[t] == gen ? dist[t] : -1;
+        }
+    }
+
+    // Search from src until every target is settled, in the workspace's arrays;
+    // returns the generation of the search. Targets are marked, and those
+    // reachability rules out are left out of the count the search waits for.
+    private static int search(QueryWorkspace ws, CsrGraph graph, int src, int[] targets,
+                              ReachabilityIndex reachability) {
+        int gen = ws.nextGeneration();
+        int mark = ws.nextMarks();
+        int[] dist = ws.dist(), stamps = ws.stamps(), marks = ws.marks();
+        IndexedHeap pq = ws.heap();
+        pq.clear();
+        int remaining = 0;
+        for (int t : targets) {
+            if (marks[t] != mark && (reachability == null || !reachability.unreachable(src, t))) {
+                marks[t] = mark;
+                remaining++;
+            }
+        }
+
+        dist[src] = 0;
+        stamps[src] = gen;
+        if (remaining == 0) {
+            return gen;
+        }
+        pq.decreaseKey(src, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            if (marks[u] == mark && --remaining == 0) break;
+            int du = dist[u];
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int v = graph.target(e);
+                int nd = du + graph.weight(e);
+                if (stamps[v] != gen || nd < dist[v]) {
+                    dist[v] = nd;
+                    stamps[v] = gen;
+                    pq.decreaseKey(v, nd);
+                }
+            }
+        }
+        return gen;
+    }
+
+    @SuppressWarnings("serial")
+    private static class RowTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final int[] sources, targets, matrix;
+        private final int from, to;
+        private final ReachabilityIndex reachability;
+
+        RowTask(CsrGraph graph, int[] sources, int[] targets, int[] matrix, int from, int to,
+                ReachabilityIndex reachability) {
+            this.graph = graph;
+            this.sources = sources;
+            this.targets = targets;
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+            this.reachability = reachability;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                computeRow(graph, sources[from], targets, matrix, from * targets.length, reachability);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowTask(graph, sources, targets, matrix, from, mid, reachability),
+                      new RowTask(graph, sources, targets, matrix, mid, to, reachability));
+        }
+    }
+}
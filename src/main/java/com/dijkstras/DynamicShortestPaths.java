@@ -0,0 +1,226 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Shortest-path trees for a set of watched sources, kept correct under edge
+// insertion and deletion in the style of Ramalingam and Reps. An update only
+// touches the nodes whose distance actually changes instead of re-running
+// Dijkstra over the whole graph. Edges are read from the editor's GraphStore,
+// whose in-edge index lets deletions find the in-edges of affected nodes; the
+// store is changed first and the engine told afterwards.
+class DynamicShortestPaths {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final GraphStore graph;
+    private int capacity; // length of every per-node array, trees included
+    private int[] affectedStamp; // marks the subtree cut off by a deletion
+    private int stamp;
+    private IndexedHeap pq; // empty between updates
+    private final HashMap<Integer, ShortestPathTree> trees = new HashMap<>();
+
+    DynamicShortestPaths(GraphStore graph) {
+        this.graph = graph;
+        capacity = Math.max(16, graph.nodeCount());
+        affectedStamp = new int[capacity];
+        pq = new IndexedHeap(capacity);
+    }
+
+    // After graph.addNode()
+    void addNode() {
+        if (graph.nodeCount() > capacity) {
+            grow(Math.max(graph.nodeCount(), capacity * 2));
+        }
+    }
+
+    // After graph.removeLastNode()
+    void removeLastNode() {
+        int v = graph.nodeCount();
+        for (ShortestPathTree tree : trees.values()) {
+            tree.dist[v] = INF;
+            tree.parent[v] = -1;
+        }
+        trees.remove(v);
+    }
+
+    // Start maintaining the tree of source; computed from scratch once
+    ShortestPathTree watch(int source) {
+        ShortestPathTree tree = trees.get(source);
+        if (tree != null) {
+            return tree;
+        }
+        int[] dist = new int[capacity];
+        int[] parent = new int[capacity];
+        Arrays.fill(dist, INF);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+        tree = new ShortestPathTree(source, dist, parent);
+        propagate(tree, source);
+        trees.put(source, tree);
+        return tree;
+    }
+
+    // Start maintaining a tree computed elsewhere for the current graph, such as
+    // by a background SearchTask; dist and parent cover exactly the graph's nodes
+    ShortestPathTree adopt(int source, int[] dist, int[] parent) {
+        int n = graph.nodeCount();
+        int[] ownDist = Arrays.copyOf(dist, capacity);
+        int[] ownParent = Arrays.copyOf(parent, capacity);
+        Arrays.fill(ownDist, n, capacity, INF);
+        Arrays.fill(ownParent, n, capacity, -1);
+        ShortestPathTree tree = new ShortestPathTree(source, ownDist, ownParent);
+        trees.put(source, tree);
+        return tree;
+    }
+
+    void unwatch(int source) {
+        trees.remove(source);
+    }
+
+    // Current tree of source, or null when it is not watched
+    ShortestPathTree tree(int source) {
+        return trees.get(source);
+    }
+
+    // After graph.addEdge(u, v, w)
+    void insertEdge(int u, int v, int w) {
+        for (ShortestPathTree tree : trees.values()) {
+            int[] dist = tree.dist;
+            if (dist[u] != INF && dist[u] + w < dist[v]) {
+                dist[v] = dist[u] + w;
+                tree.parent[v] = u;
+                propagate(tree, v);
+            }
+        }
+    }
+
+    // After graph.removeEdge(u, v, w)
+    void deleteEdge(int u, int v, int w) {
+        for (ShortestPathTree tree : trees.values()) {
+            if (tree.parent[v] == u && !hasEdge(u, v, tree.dist[v] - tree.dist[u])) {
+                repairAfterDelete(tree, v);
+            }
+        }
+    }
+
+    // Dijkstra from start that only follows edges which lower a distance
+    private void propagate(ShortestPathTree tree, int start) {
+        int[] dist = tree.dist;
+        int[] parent = tree.parent;
+        SearchStats stats = SolverMetrics.ENABLED ? startStats() : null;
+        pq.decreaseKey(start, dist[start]);
+        if (SolverMetrics.ENABLED) stats.pushes++;
+        settle(dist, parent, false, stats);
+        if (SolverMetrics.ENABLED) finishStats(stats);
+    }
+
+    // Dijkstra over what is queued, optionally only into the nodes stamped as affected
+    private void settle(int[] dist, int[] parent, boolean affectedOnly, SearchStats stats) {
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            if (SolverMetrics.ENABLED) {
+                stats.pops++;
+                stats.settled++;
+            }
+            int du = dist[u];
+            for (int i = 0, d = graph.degree(u); i < d; i++) {
+                int x = graph.target(u, i);
+                if (affectedOnly && affectedStamp[x] != stamp) continue; // distances outside the subtree cannot change
+                int nd = du + graph.weight(u, i);
+                if (SolverMetrics.ENABLED) stats.relaxed++;
+                if (nd < dist[x]) {
+                    dist[x] = nd;
+                    parent[x] = u;
+                    pq.decreaseKey(x, nd);
+                    if (SolverMetrics.ENABLED) stats.pushes++;
+                }
+            }
+        }
+    }
+
+    private static SearchStats startStats() {
+        SearchStats stats = new SearchStats();
+        stats.nanos = System.nanoTime();
+        return stats;
+    }
+
+    private static void finishStats(SearchStats stats) {
+        stats.nanos = System.nanoTime() - stats.nanos;
+        SolverMetrics.get().record(stats);
+    }
+
+    // The tree edge into root is gone. Every node below root loses its distance;
+    // each one is re-seeded from its best in-edge outside the cut subtree and the
+    // new distances are settled by a Dijkstra confined to the subtree.
+    private void repairAfterDelete(ShortestPathTree tree, int root) {
+        int[] dist = tree.dist;
+        int[] parent = tree.parent;
+        SearchStats stats = SolverMetrics.ENABLED ? startStats() : null;
+        if (++stamp == 0) {
+            Arrays.fill(affectedStamp, 0);
+            stamp = 1;
+        }
+
+        int[] affected = new int[16];
+        int count = 0;
+        affected[count++] = root;
+        affectedStamp[root] = stamp;
+        for (int i = 0; i < count; i++) {
+            int a = affected[i];
+            for (int j = 0, d = graph.degree(a); j < d; j++) {
+                int child = graph.target(a, j);
+                if (parent[child] == a && affectedStamp[child] != stamp) {
+                    affectedStamp[child] = stamp;
+                    if (count == affected.length) affected = Arrays.copyOf(affected, count * 2);
+                    affected[count++] = child;
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            int a = affected[i];
+            dist[a] = INF;
+            parent[a] = -1;
+        }
+        for (int i = 0; i < count; i++) {
+            int a = affected[i];
+            for (int j = 0, d = graph.inDegree(a); j < d; j++) {
+                int p = graph.source(a, j);
+                if (affectedStamp[p] == stamp || dist[p] == INF) continue;
+                int nd = dist[p] + graph.inWeight(a, j);
+                if (nd < dist[a]) {
+                    dist[a] = nd;
+                    parent[a] = p;
+                }
+            }
+            if (dist[a] != INF) {
+                pq.decreaseKey(a, dist[a]);
+                if (SolverMetrics.ENABLED) stats.pushes++;
+            }
+        }
+        settle(dist, parent, true, stats);
+        if (SolverMetrics.ENABLED) finishStats(stats);
+    }
+
+    private boolean hasEdge(int u, int v, int w) {
+        for (int i = 0, d = graph.degree(u); i < d; i++) {
+            if (graph.target(u, i) == v && graph.weight(u, i) == w) return true;
+        }
+        return false;
+    }
+
+    private void grow(int newCapacity) {
+        int old = capacity;
+        capacity = newCapacity;
+        affectedStamp = Arrays.copyOf(affectedStamp, newCapacity);
+        pq = new IndexedHeap(newCapacity);
+        // Trees hold arrays sized to the capacity, so they are replaced
+        trees.replaceAll((source, tree) -> {
+            int[] dist = Arrays.copyOf(tree.dist, newCapacity);
+            int[] parent = Arrays.copyOf(tree.parent, newCapacity);
+            Arrays.fill(dist, old, newCapacity, INF);
+            Arrays.fill(parent, old, newCapacity, -1);
+            return new ShortestPathTree(source, dist, parent);
+        });
+    }
+}
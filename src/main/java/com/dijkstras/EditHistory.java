@@ -0,0 +1,154 @@
+package com.dijkstras;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+// Undo/redo log of editor commands. Each edit is a small invertible command,
+// and edits that replace the whole graph keep the replaced containers by
+// reference instead of copying them, so every step is O(1) to record, undo
+// and redo. Every edit estimates the memory it keeps alive. When the history
+// goes over its budget, the oldest edits are dropped, but the latest one is
+// always kept so the most recent edit can still be undone.
+class EditHistory {
+    static final long DEFAULT_BUDGET = Long.getLong("dijkstras.undoBudgetMB", 128) << 20;
+
+    interface Edit {
+        void undo();
+
+        void redo();
+
+        // Approximate heap kept reachable only by this edit
+        long bytes();
+    }
+
+    // Edits recorded between beginGroup and endGroup, undone and redone as one
+    static class Group implements Edit {
+        private final ArrayList<Edit> edits = new ArrayList<>();
+        private long bytes;
+
+        void add(Edit edit) {
+            edits.add(edit);
+            bytes += edit.bytes();
+        }
+
+        boolean isEmpty() {
+            return edits.isEmpty();
+        }
+
+        public void undo() {
+            for (int i = edits.size() - 1; i >= 0; i--) {
+                edits.get(i).undo();
+            }
+        }
+
+        public void redo() {
+            for (Edit edit : edits) {
+                edit.redo();
+            }
+        }
+
+        public long bytes() {
+            return bytes;
+        }
+    }
+
+    private final long budget;
+    private final ArrayDeque<Edit> undo = new ArrayDeque<>(); // newest first
+    private final ArrayDeque<Edit> redo = new ArrayDeque<>();
+    private long undoBytes, redoBytes;
+    private Group group;
+    private int groupDepth;
+
+    EditHistory() {
+        this(DEFAULT_BUDGET);
+    }
+
+    EditHistory(long budget) {
+        this.budget = budget;
+    }
+
+    // Record an edit that has just been applied; anything that could be redone is gone
+    void record(Edit edit) {
+        if (group != null) {
+            group.add(edit);
+            return;
+        }
+        redo.clear();
+        redoBytes = 0;
+        undo.push(edit);
+        undoBytes += edit.bytes();
+        trim();
+    }
+
+    // Groups nest; only the outermost endGroup records the group
+    void beginGroup() {
+        if (groupDepth++ == 0) {
+            group = new Group();
+        }
+    }
+
+    void endGroup() {
+        if (groupDepth == 0) {
+            throw new IllegalStateException("endGroup without beginGroup");
+        }
+        if (--groupDepth == 0) {
+            Group finished = group;
+            group = null;
+            if (!finished.isEmpty()) {
+                record(finished);
+            }
+        }
+    }
+
+    boolean undo() {
+        Edit edit = undo.poll();
+        if (edit == null) {
+            return false;
+        }
+        undoBytes -= edit.bytes();
+        edit.undo();
+        redo.push(edit);
+        redoBytes += edit.bytes();
+        return true;
+    }
+
+    boolean redo() {
+        Edit edit = redo.poll();
+        if (edit == null) {
+            return false;
+        }
+        redoBytes -= edit.bytes();
+        edit.redo();
+        undo.push(edit);
+        undoBytes += edit.bytes();
+        return true;
+    }
+
+    void clear() {
+        undo.clear();
+        redo.clear();
+        undoBytes = redoBytes = 0;
+    }
+
+    int undoSize() {
+        return undo.size();
+    }
+
+    int redoSize() {
+        return redo.size();
+    }
+
+    long bytes() {
+        return undoBytes + redoBytes;
+    }
+
+    long budget() {
+        return budget;
+    }
+
+    private void trim() {
+        while (undoBytes + redoBytes > budget && undo.size() > 1) {
+            undoBytes -= undo.removeLast().bytes();
+        }
+    }
+}
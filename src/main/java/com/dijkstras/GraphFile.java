@@ -0,0 +1,201 @@
+package com.dijkstras;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Versioned binary graph file. All values are little-endian ints:
+//
+//     header   magic "DJKG", version, flags, nodeCount, edgeCount, 3 reserved
+//     x[n]     node coordinates, only when flags has HAS_COORDINATES
+//     y[n]
+//     offsets[n + 1], targets[m], weights[m]   the CSR arrays of CsrGraph
+//
+// open() memory-maps the file read-only and the returned graph reads adjacency
+// straight from the mapped pages, so nothing is copied onto the heap and the
+// operating system pages the graph in as searches touch it.
+public class GraphFile {
+    private static final int MAGIC = 0x474b4a44; // "DJKG" read as little-endian
+    private static final int VERSION = 1;
+    private static final int HAS_COORDINATES = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    private final CsrGraph graph;
+    private final IntBuffer x, y; // null without coordinates
+
+    private GraphFile(CsrGraph graph, IntBuffer x, IntBuffer y) {
+        this.graph = graph;
+        this.x = x;
+        this.y = y;
+    }
+
+    // x and y may be null; otherwise they hold one coordinate per node
+    public static void save(Path file, CsrGraph graph, int[] x, int[] y) throws IOException {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        boolean coordinates = x != null && y != null;
+        if (coordinates && (x.length < n || y.length < n)) {
+            throw new IllegalArgumentException("Coordinates missing for some nodes");
+        }
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(MAGIC).putInt(VERSION).putInt(coordinates ? HAS_COORDINATES : 0)
+               .putInt(n).putInt(m).putInt(0).putInt(0).putInt(0);
+            if (coordinates) {
+                for (int v = 0; v < n; v++) put(out, buf, x[v]);
+                for (int v = 0; v < n; v++) put(out, buf, y[v]);
+            }
+            for (int v = 0; v < n; v++) put(out, buf, graph.begin(v));
+            put(out, buf, m);
+            for (int e = 0; e < m; e++) put(out, buf, graph.target(e));
+            for (int e = 0; e < m; e++) put(out, buf, graph.weight(e));
+            flush(out, buf);
+        }
+    }
+
+    private static void put(FileChannel out, ByteBuffer buf, int value) throws IOException {
+        if (!buf.hasRemaining()) {
+            flush(out, buf);
+        }
+        buf.putInt(value);
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) out.write(buf);
+        buf.clear();
+    }
+
+    public static GraphFile open(Path file) throws IOException {
+        // Mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            IntBuffer header = map(channel, 0, HEADER_BYTES / 4);
+            if (header.get(0) != MAGIC) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            if (header.get(1) != VERSION) {
+                throw new IOException("Unsupported graph file version " + header.get(1));
+            }
+            boolean coordinates = (header.get(2) & HAS_COORDINATES) != 0;
+            int n = header.get(3);
+            int m = header.get(4);
+            long expected = HEADER_BYTES + 4L * ((coordinates ? 2L * n : 0) + n + 1 + 2L * m);
+            if (n < 0 || m < 0 || channel.size() != expected) {
+                throw new IOException("Truncated or corrupt graph file: " + file);
+            }
+
+            long pos = HEADER_BYTES;
+            IntBuffer x = null, y = null;
+            if (coordinates) {
+                x = map(channel, pos, n);
+                pos += 4L * n;
+                y = map(channel, pos, n);
+                pos += 4L * n;
+            }
+            IntBuffer offsets = map(channel, pos, n + 1);
+            pos += 4L * (n + 1);
+            IntBuffer targets = map(channel, pos, m);
+            pos += 4L * m;
+            IntBuffer weights = map(channel, pos, m);
+            validate(file, offsets, targets, weights);
+            return new GraphFile(new MappedGraph(offsets, targets, weights), x, y);
+        }
+    }
+
+    // One linear pass before any search trusts the arrays: begin(v)..end(v) must
+    // stay inside the edge arrays and every edge must lead to a node
+    private static void validate(Path file, IntBuffer offsets, IntBuffer targets, IntBuffer weights)
+            throws IOException {
+        int n = offsets.limit() - 1;
+        int m = targets.limit();
+        if (offsets.get(0) != 0 || offsets.get(n) != m) {
+            throw new IOException("Inconsistent CSR arrays in " + file);
+        }
+        for (int v = 0; v < n; v++) {
+            if (offsets.get(v + 1) < offsets.get(v)) {
+                throw new IOException("Decreasing offset at node " + (v + 1) + " in " + file);
+            }
+        }
+        for (int e = 0; e < m; e++) {
+            int t = targets.get(e);
+            if (t < 0 || t >= n) {
+                throw new IOException("Edge " + e + " leads to missing node " + t + " in " + file);
+            }
+            if (weights.get(e) < 0) {
+                throw new IOException("Negative weight on edge " + e + " in " + file);
+            }
+        }
+    }
+
+    // Each section gets its own mapping, since one mapping is limited to 2 GB
+    private static IntBuffer map(FileChannel channel, long pos, int ints) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, pos, 4L * ints)
+                      .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    public CsrGraph graph() {
+        return graph;
+    }
+
+    public boolean hasCoordinates() {
+        return x != null;
+    }
+
+    public int x(int node) {
+        return x.get(node);
+    }
+
+    public int y(int node) {
+        return y.get(node);
+    }
+
+    // CSR arrays read in place from mapped buffers
+    private static final class MappedGraph extends CsrGraph {
+        private final IntBuffer offsets, targets, weights;
+
+        MappedGraph(IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        @Override
+        public int nodeCount() {
+            return offsets.limit() - 1;
+        }
+
+        @Override
+        public int edgeCount() {
+            return targets.limit();
+        }
+
+        @Override
+        public int begin(int node) {
+            return offsets.get(node);
+        }
+
+        @Override
+        public int end(int node) {
+            return offsets.get(node + 1);
+        }
+
+        @Override
+        public int target(int edge) {
+            return targets.get(edge);
+        }
+
+        @Override
+        public int weight(int edge) {
+            return weights.get(edge);
+        }
+    }
+}
@@ -4,17 +4,79 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.awt.geom.RoundRectangle2D;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 public class GraphGUI extends JFrame {
-    private final ArrayList<Point> nodes; // Store node positions
-    private final ArrayList<Edge> edges;  // Store edges
-    private final ArrayList<Edge>[] graph; // Graph structure
+    // Not final: Clear All swaps in fresh containers so that undo can swap the old ones back
+    private GraphStore graph; // Graph structure
+    private int[] edgeWeights = new int[16]; // by edge id, ids numbered as in the spatial index
     private int nodeCount = 0; // Total nodes
     private ArrayList<Integer> highlightedPath = new ArrayList<>(); // Store highlighted path
     private boolean isPathHighlighted = false;
+    private long graphVersion = 0; // bumped by every mutation
+    // Cached sources are watched by the dynamic engine, which repairs their trees on edits
+    // Not final either: Clear All swaps these along with the containers they index
+    private DynamicShortestPaths dynamicPaths;
+    private final ShortestPathCache pathCache = new ShortestPathCache(16, source -> dynamicPaths.unwatch(source));
+    // Grid over node positions and edges; also where their coordinates and endpoints are kept
+    private SpatialIndex index = new SpatialIndex();
+    // Rejects queries that have no path before any search starts. Kept current
+    // as nodes and edges are added; once stale it is rebuilt in the background.
+    private ReachabilityIndex reachability = new ReachabilityIndex();
+    private SwingWorker<ReachabilityIndex, Void> reachabilityBuild; // the rebuild in progress, if any
+    // Landmark bounds that make point-to-point searches on big graphs goal-directed.
+    // Built in the background on the first search, refreshed as edges are added,
+    // and dropped on removals, which can lengthen distances; null until then.
+    private AltIndex altIndex;
+    private SwingWorker<AltIndex, Void> altBuild; // the build in progress, if any
+    private static final int ALT_MIN_NODES = 10_000; // smaller graphs search whole trees, which the cache reuses
+    private static final int ALT_LANDMARKS = 8;
+    // View transform: screen = world * viewScale + (viewX, viewY)
+    private double viewScale = 1, viewX = 0, viewY = 0;
+    private Point dragStart; // last mouse position while panning
+    private int pickedNode = -1; // path source chosen with Ctrl+click
+    private long pathVersion = 0; // bumped when the highlighted path or the picked node changes
+    private final Layer graphLayer = new Layer();
+    private final Layer isochroneLayer = new Layer();
+    private final Layer exploredLayer = new Layer();
+    private final Layer pathLayer = new Layer();
+    private JPanel canvas;
+
+    // Background searches: paths, alternatives and isochrones. Starting one stops
+    // the one before, and only the latest (currentSearch) may touch the editor
+    // when it reports or finishes.
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "path-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SearchJob<?, ?> currentSearch;
+    private long searchId = 0; // bumped per search, keys the explored layer
+    private int[] explored = new int[0]; // nodes settled so far by the current search
+    private int exploredCount, exploredDrawn;
+    // Graph as of snapshotVersion, built by and shared between background jobs
+    private final Object snapshotLock = new Object();
+    private CsrGraph snapshot;
+    private long snapshotVersion = -1;
+    private CsrGraph snapshotReverse; // snapshot.reverse(), built on first use
+    private long reverseVersion = -1;
+    // k shortest paths of the last Alternative Paths query, cycled with [ and ]
+    private List<DijkstrasAlgorithm.Result> alternatives = new ArrayList<>();
+    private int alternative;
+    private long alternativesVersion = -1;
+    // Last range query, shaded while the graph is unchanged since it ran
+    private RangeQuery.Result isochrone;
+    private long isochroneVersion = -1, isochroneId = 0;
 
     // Modern color scheme
     private static final Color PRIMARY_COLOR = new Color(52, 152, 219);
@@ -25,19 +87,47 @@ public class GraphGUI extends JFrame {
     private static final Color EDGE_COLOR = new Color(149, 165, 166);
     private static final Color HIGHLIGHTED_PATH_COLOR = new Color(46, 204, 113); // Green color
     private static final Color HIGHLIGHTED_NODE_COLOR = new Color(46, 204, 113); // Green color
+    private static final Color PICKED_NODE_COLOR = new Color(231, 76, 60);
+    private static final Color EXPLORED_COLOR = new Color(230, 126, 34, 90);
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 30);
+    private static final Color CANVAS_TOP_COLOR = new Color(248, 249, 250);
+    private static final Color CANVAS_BOTTOM_COLOR = new Color(241, 243, 244);
+
+    // Shared drawing resources, so painting allocates nothing per element
+    private static final Stroke EDGE_STROKE = new BasicStroke(2.0f);
+    private static final Stroke PATH_STROKE = new BasicStroke(4.0f);
+    private static final Stroke NODE_BORDER_STROKE = new BasicStroke(2.0f);
+    private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 12);
+    private static final int NODE_RADIUS = 15;
+    private static final int PICK_PIXELS = 8; // minimum on-screen pick radius
+    private static final Stroke THIN_STROKE = new BasicStroke(1.0f);
+
+    // Level of detail: below LABEL_SCALE weights and node numbers are left out,
+    // below AGGREGATE_SCALE nodes are drawn as density squares
+    private static final double LABEL_SCALE = 0.6;
+    private static final double AGGREGATE_SCALE = 0.25;
+    private static final int AGGREGATE_PIXELS = 4;
+    private static final int[] DENSITY_COLORS = new int[8]; // ARGB by log2 of the node count
+    static {
+        for (int i = 0; i < DENSITY_COLORS.length; i++) {
+            DENSITY_COLORS[i] = new Color(52, 152, 219, 96 + i * 159 / (DENSITY_COLORS.length - 1)).getRGB();
+        }
+    }
+    private static final double MIN_SCALE = 0.01, MAX_SCALE = 20;
+    private static final Color[] ISOCHRONE_COLORS = new Color[8]; // green near the source to red at the budget
+    static {
+        for (int i = 0; i < ISOCHRONE_COLORS.length; i++) {
+            float t = i / (float) (ISOCHRONE_COLORS.length - 1);
+            ISOCHRONE_COLORS[i] = new Color(Math.round(46 + t * (231 - 46)), Math.round(204 - t * (204 - 76)),
+                    Math.round(113 - t * (113 - 60)), 110);
+        }
+    }
 
-    private final Stack<Action> undoStack = new Stack<>();
-    private final Stack<Action> redoStack = new Stack<>();
+    private final EditHistory history = new EditHistory();
 
     public GraphGUI() {
-        nodes = new ArrayList<>();
-        edges = new ArrayList<>();
-        graph = new ArrayList[100]; // Graph array
-
-        // Initialize graph list
-        for (int i = 0; i < 100; i++) {
-            graph[i] = new ArrayList<>();
-        }
+        graph = new GraphStore();
+        dynamicPaths = new DynamicShortestPaths(graph);
 
         setupUI();
 
@@ -46,6 +136,10 @@ public class GraphGUI extends JFrame {
         ActionMap actionMap = getRootPane().getActionMap();
         inputMap.put(KeyStroke.getKeyStroke("control Z"), "undo");
         inputMap.put(KeyStroke.getKeyStroke("control Y"), "redo");
+        inputMap.put(KeyStroke.getKeyStroke("control 0"), "resetView");
+        inputMap.put(KeyStroke.getKeyStroke("ESCAPE"), "cancelSearch");
+        inputMap.put(KeyStroke.getKeyStroke("CLOSE_BRACKET"), "nextAlternative");
+        inputMap.put(KeyStroke.getKeyStroke("OPEN_BRACKET"), "previousAlternative");
         actionMap.put("undo", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -58,6 +152,30 @@ public class GraphGUI extends JFrame {
                 redo();
             }
         });
+        actionMap.put("resetView", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                resetView();
+            }
+        });
+        actionMap.put("cancelSearch", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cancelSearch();
+            }
+        });
+        actionMap.put("nextAlternative", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cycleAlternative(1);
+            }
+        });
+        actionMap.put("previousAlternative", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cycleAlternative(-1);
+            }
+        });
     }
 
     private void setupUI() {
@@ -111,25 +229,45 @@ public class GraphGUI extends JFrame {
     }
 
     private JPanel createCanvas() {
-        JPanel canvas = new JPanel() {
+        canvas = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                // Draw background gradient
-                GradientPaint gradient = new GradientPaint(0, 0, new Color(248, 249, 250), 
-                                                          getWidth(), getHeight(), new Color(241, 243, 244));
-                g2d.setPaint(gradient);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Draw edges first (so they appear behind nodes)
-                drawEdges(g2d);
-
-                // Draw nodes
-                drawNodes(g2d);
+                int width = getWidth(), height = getHeight();
+
+                // The graph layer is redrawn only after edits or view changes, and
+                // the path layer only when the highlight changes as well
+                Graphics2D layer = graphLayer.begin(width, height, graphVersion, 0);
+                if (layer != null) {
+                    drawGraph(layer, width, height);
+                    layer.dispose();
+                }
+                layer = isochroneLayer.begin(width, height, graphVersion, isochroneId);
+                if (layer != null) {
+                    drawIsochrone(layer);
+                    layer.dispose();
+                }
+                // Explored nodes are only ever added during a search, so new ones are drawn over the old
+                layer = exploredLayer.begin(width, height, graphVersion, searchId);
+                if (layer != null) {
+                    exploredDrawn = 0;
+                } else if (exploredDrawn < exploredCount) {
+                    layer = exploredLayer.graphics();
+                }
+                if (layer != null) {
+                    drawExplored(layer, exploredDrawn, exploredCount);
+                    exploredDrawn = exploredCount;
+                    layer.dispose();
+                }
+                layer = pathLayer.begin(width, height, graphVersion, pathVersion);
+                if (layer != null) {
+                    drawPath(layer, width, height);
+                    layer.dispose();
+                }
+                g.drawImage(graphLayer.image, 0, 0, null);
+                g.drawImage(isochroneLayer.image, 0, 0, null);
+                g.drawImage(exploredLayer.image, 0, 0, null);
+                g.drawImage(pathLayer.image, 0, 0, null);
             }
         };
 
@@ -139,134 +277,385 @@ public class GraphGUI extends JFrame {
             BorderFactory.createEmptyBorder(20, 20, 20, 20)
         ));
 
-        canvas.addMouseListener(new MouseAdapter() {
+        MouseAdapter mouse = new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 handleMouseClick(e);
             }
-        });
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+            }
+
+            // Drag to pan
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStart != null) {
+                    viewX += e.getX() - dragStart.x;
+                    viewY += e.getY() - dragStart.y;
+                    dragStart = e.getPoint();
+                    repaint();
+                }
+            }
+
+            // Wheel to zoom, keeping the point under the cursor fixed
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double scale = viewScale * Math.pow(1.1, -e.getPreciseWheelRotation());
+                scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+                double factor = scale / viewScale;
+                viewX = e.getX() - (e.getX() - viewX) * factor;
+                viewY = e.getY() - (e.getY() - viewY) * factor;
+                viewScale = scale;
+                repaint();
+            }
+        };
+        canvas.addMouseListener(mouse);
+        canvas.addMouseMotionListener(mouse);
+        canvas.addMouseWheelListener(mouse);
 
         return canvas;
     }
 
-    private void drawEdges(Graphics2D g2d) {
-        for (Edge e : edges) {
-            if (nodes.size() > e.src && nodes.size() > e.dest) {
-                Point src = nodes.get(e.src);
-                Point dest = nodes.get(e.dest);
+    // Offscreen image that is redrawn only when the graph, the path or the view changed
+    private class Layer {
+        BufferedImage image;
+        long graph = -1, path = -1;
+        double scale, x, y;
+
+        // Graphics for redrawing the cleared image when it is stale, else null
+        Graphics2D begin(int width, int height, long graph, long path) {
+            if (image != null && image.getWidth() == width && image.getHeight() == height
+                    && this.graph == graph && this.path == path
+                    && scale == viewScale && x == viewX && y == viewY) {
+                return null;
+            }
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+            }
+            this.graph = graph;
+            this.path = path;
+            scale = viewScale;
+            x = viewX;
+            y = viewY;
+            Graphics2D g2d = graphics();
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            return g2d;
+        }
 
-                // Check if this edge is part of the highlighted path
-                boolean isHighlighted = isPathHighlighted && isEdgeInPath(e.src, e.dest);
-                
-                if (isHighlighted) {
-                    g2d.setStroke(new BasicStroke(4.0f));
-                    g2d.setColor(HIGHLIGHTED_PATH_COLOR);
-                } else {
-                    g2d.setStroke(new BasicStroke(2.0f));
-                    g2d.setColor(EDGE_COLOR);
-                }
+        // Graphics for drawing over the current image
+        Graphics2D graphics() {
+            Graphics2D g2d = image.createGraphics();
+            g2d.setClip(0, 0, image.getWidth(), image.getHeight());
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            return g2d;
+        }
+    }
 
-                // Draw edge line
-                g2d.drawLine(src.x, src.y, dest.x, dest.y);
+    private void drawGraph(Graphics2D g2d, int width, int height) {
+        // Draw background gradient
+        GradientPaint gradient = new GradientPaint(0, 0, CANVAS_TOP_COLOR, width, height, CANVAS_BOTTOM_COLOR);
+        g2d.setPaint(gradient);
+        g2d.fillRect(0, 0, width, height);
 
-                // Draw weight label
-                g2d.setColor(Color.WHITE);
-                g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
-                String weightText = Integer.toString(e.wt);
-                FontMetrics fm = g2d.getFontMetrics();
-                int textWidth = fm.stringWidth(weightText);
-                int textHeight = fm.getAscent();
-                
-                // Draw background for weight label
-                int labelX = (src.x + dest.x) / 2 - textWidth / 2;
-                int labelY = (src.y + dest.y) / 2 + textHeight / 2;
-                
-                g2d.setColor(isHighlighted ? HIGHLIGHTED_PATH_COLOR : PRIMARY_COLOR);
-                g2d.fillRoundRect(labelX - 5, labelY - textHeight - 2, textWidth + 10, textHeight + 4, 8, 8);
-                
-                g2d.setColor(Color.WHITE);
-                g2d.drawString(weightText, labelX, labelY);
-            }
+        if (viewScale < AGGREGATE_SCALE) {
+            drawAggregated(g2d, width, height);
+            return;
         }
+        // Everything below is in world coordinates, so the clip is the visible world area
+        g2d.translate(viewX, viewY);
+        g2d.scale(viewScale, viewScale);
+        Rectangle clip = g2d.getClipBounds();
+        boolean labels = viewScale >= LABEL_SCALE;
+
+        // Draw edges first (so they appear behind nodes)
+        drawEdges(g2d, clip, labels);
+
+        // Draw nodes
+        drawNodes(g2d, clip, labels);
     }
 
-    private void drawNodes(Graphics2D g2d) {
-        for (int i = 0; i < nodes.size(); i++) {
-            Point p = nodes.get(i);
-            
-            // Check if this node is part of the highlighted path
-            boolean isHighlighted = isPathHighlighted && highlightedPath.contains(i);
-            
-            // Draw node shadow
-            g2d.setColor(new Color(0, 0, 0, 30));
-            g2d.fillOval(p.x - 17, p.y - 17, 34, 34);
-            
-            // Draw node
-            if (isHighlighted) {
-                g2d.setColor(HIGHLIGHTED_NODE_COLOR);
-            } else {
-                g2d.setColor(NODE_COLOR);
+    // Only edges whose bounding box, padded for the weight label, meets the clip are drawn
+    private void drawEdges(Graphics2D g2d, Rectangle clip, boolean labels) {
+        g2d.setFont(LABEL_FONT);
+        g2d.setStroke(EDGE_STROKE);
+        FontMetrics fm = g2d.getFontMetrics();
+        int pad = 40;
+        index.edgesIn(clip.x - pad, clip.y - pad, clip.x + clip.width + pad, clip.y + clip.height + pad, i -> {
+            int src = index.source(i), dest = index.target(i);
+
+            // Draw edge line
+            g2d.setColor(EDGE_COLOR);
+            g2d.drawLine(index.x(src), index.y(src), index.x(dest), index.y(dest));
+            if (labels) {
+                drawWeightLabel(g2d, fm, src, dest, edgeWeights[i], PRIMARY_COLOR);
             }
-            g2d.fillOval(p.x - 15, p.y - 15, 30, 30);
-            
-            // Draw node border
-            g2d.setColor(Color.WHITE);
-            g2d.setStroke(new BasicStroke(2.0f));
-            g2d.drawOval(p.x - 15, p.y - 15, 30, 30);
-            
-            // Draw node number
-            g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        });
+    }
+
+    private void drawWeightLabel(Graphics2D g2d, FontMetrics fm, int src, int dest, int wt, Color background) {
+        String weightText = Integer.toString(wt);
+        int textWidth = fm.stringWidth(weightText);
+        int textHeight = fm.getAscent();
+
+        // Draw background for weight label
+        int labelX = (index.x(src) + index.x(dest)) / 2 - textWidth / 2;
+        int labelY = (index.y(src) + index.y(dest)) / 2 + textHeight / 2;
+
+        g2d.setColor(background);
+        g2d.fillRoundRect(labelX - 5, labelY - textHeight - 2, textWidth + 10, textHeight + 4, 8, 8);
+
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(weightText, labelX, labelY);
+    }
+
+    private void drawNodes(Graphics2D g2d, Rectangle clip, boolean labels) {
+        g2d.setFont(LABEL_FONT);
+        g2d.setStroke(NODE_BORDER_STROKE);
+        FontMetrics fm = g2d.getFontMetrics();
+        int pad = NODE_RADIUS + 2; // shadow included
+        index.nodesIn(clip.x - pad, clip.y - pad, clip.x + clip.width + pad, clip.y + clip.height + pad,
+                i -> drawNode(g2d, fm, i, NODE_COLOR, labels));
+    }
+
+    private void drawNode(Graphics2D g2d, FontMetrics fm, int i, Color color, boolean labels) {
+        int x = index.x(i), y = index.y(i);
+
+        // Draw node shadow
+        g2d.setColor(SHADOW_COLOR);
+        g2d.fillOval(x - 17, y - 17, 34, 34);
+
+        // Draw node
+        g2d.setColor(color);
+        g2d.fillOval(x - 15, y - 15, 30, 30);
+
+        // Draw node border
+        g2d.setColor(Color.WHITE);
+        g2d.drawOval(x - 15, y - 15, 30, 30);
+
+        // Draw node number
+        if (labels) {
             String nodeText = Integer.toString(i);
-            FontMetrics fm = g2d.getFontMetrics();
             int textWidth = fm.stringWidth(nodeText);
-            g2d.drawString(nodeText, p.x - textWidth / 2, p.y + 4);
+            g2d.drawString(nodeText, x - textWidth / 2, y + 4);
         }
     }
 
-    private boolean isEdgeInPath(int src, int dest) {
-        for (int i = 0; i < highlightedPath.size() - 1; i++) {
-            if ((highlightedPath.get(i) == src && highlightedPath.get(i + 1) == dest) ||
-                (highlightedPath.get(i) == dest && highlightedPath.get(i + 1) == src)) {
-                return true;
+    // Far zoomed out, nodes are binned into AGGREGATE_PIXELS squares shaded by
+    // how many fall in each. Edges shorter than two bins are left to the squares
+    // and only one edge is drawn between any two bins.
+    private final LongIntHashMap drawnBins = new LongIntHashMap(); // bin pairs already joined this frame, cleared per repaint
+
+    private void drawAggregated(Graphics2D g2d, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        int cols = width / AGGREGATE_PIXELS + 1, rows = height / AGGREGATE_PIXELS + 1;
+        int left = (int) Math.floor(-viewX / viewScale), top = (int) Math.floor(-viewY / viewScale);
+        int right = (int) Math.ceil((width - viewX) / viewScale), bottom = (int) Math.ceil((height - viewY) / viewScale);
+
+        drawnBins.clear();
+        g2d.setStroke(THIN_STROKE);
+        g2d.setColor(EDGE_COLOR);
+        index.edgesIn(left, top, right, bottom, i -> {
+            int src = index.source(i), dest = index.target(i);
+            int x0 = screenX(index.x(src)), y0 = screenY(index.y(src));
+            int x1 = screenX(index.x(dest)), y1 = screenY(index.y(dest));
+            if (Math.abs(x1 - x0) < 2 * AGGREGATE_PIXELS && Math.abs(y1 - y0) < 2 * AGGREGATE_PIXELS) {
+                return; // joins neighbouring bins, which the density squares already show
+            }
+            int a = bin(x0, y0, cols, rows), b = bin(x1, y1, cols, rows);
+            if (a == -1 || b == -1 || drawnBins.add(LongIntHashMap.pack(Math.min(a, b), Math.max(a, b)), 1) == 1) {
+                g2d.drawLine(x0, y0, x1, y1);
+            }
+        });
+
+        int[] counts = new int[cols * rows];
+        index.nodesIn(left, top, right, bottom, v -> {
+            int b = bin(screenX(index.x(v)), screenY(index.y(v)), cols, rows);
+            if (b != -1) {
+                counts[b]++;
+            }
+        });
+        // One pixel per bin, scaled up in a single draw
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                counts[i] = DENSITY_COLORS[Math.min(DENSITY_COLORS.length - 1, 31 - Integer.numberOfLeadingZeros(counts[i]))];
+            }
+        }
+        BufferedImage density = new BufferedImage(cols, rows, BufferedImage.TYPE_INT_ARGB);
+        density.setRGB(0, 0, cols, rows, counts, 0, cols);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(density, 0, 0, cols * AGGREGATE_PIXELS, rows * AGGREGATE_PIXELS, null);
+    }
+
+    // Index of the on-screen bin holding (sx, sy), or -1 when off screen
+    private static int bin(int sx, int sy, int cols, int rows) {
+        int bx = Math.floorDiv(sx, AGGREGATE_PIXELS), by = Math.floorDiv(sy, AGGREGATE_PIXELS);
+        return bx >= 0 && bx < cols && by >= 0 && by < rows ? by * cols + bx : -1;
+    }
+
+    private int screenX(int x) {
+        return (int) Math.round(x * viewScale + viewX);
+    }
+
+    private int screenY(int y) {
+        return (int) Math.round(y * viewScale + viewY);
+    }
+
+    // Halo around explored[from, to); off-screen nodes are skipped
+    private void drawExplored(Graphics2D g2d, int from, int to) {
+        g2d.setColor(EXPLORED_COLOR);
+        int width = g2d.getClipBounds().width, height = g2d.getClipBounds().height;
+        int radius = Math.max(2, (int) Math.round((NODE_RADIUS + 5) * viewScale));
+        for (int i = from; i < to; i++) {
+            int sx = screenX(index.x(explored[i])), sy = screenY(index.y(explored[i]));
+            if (sx >= -radius && sx <= width + radius && sy >= -radius && sy <= height + radius) {
+                g2d.fillOval(sx - radius, sy - radius, 2 * radius, 2 * radius);
+            }
+        }
+    }
+
+    // Halo around every node of the isochrone, colored by its share of the budget
+    private void drawIsochrone(Graphics2D g2d) {
+        RangeQuery.Result result = isochrone;
+        if (result == null || isochroneVersion != graphVersion) {
+            return;
+        }
+        int width = g2d.getClipBounds().width, height = g2d.getClipBounds().height;
+        int radius = Math.max(2, (int) Math.round((NODE_RADIUS + 5) * viewScale));
+        long budget = Math.max(1, result.budget);
+        for (int i = 0; i < result.size(); i++) {
+            int v = result.nodes[i];
+            int sx = screenX(index.x(v)), sy = screenY(index.y(v));
+            if (sx >= -radius && sx <= width + radius && sy >= -radius && sy <= height + radius) {
+                g2d.setColor(ISOCHRONE_COLORS[(int) (result.distances[i] * (ISOCHRONE_COLORS.length - 1L) / budget)]);
+                g2d.fillOval(sx - radius, sy - radius, 2 * radius, 2 * radius);
+            }
+        }
+    }
+
+    // The highlighted path and the picked node, over the graph layer
+    private void drawPath(Graphics2D g2d, int width, int height) {
+        ArrayList<Integer> path = isPathHighlighted ? highlightedPath : new ArrayList<>();
+        int n = nodeCount;
+        if (viewScale < AGGREGATE_SCALE) {
+            g2d.setStroke(PATH_STROKE);
+            g2d.setColor(HIGHLIGHTED_PATH_COLOR);
+            for (int i = 0; i + 1 < path.size(); i++) {
+                if (path.get(i) < n && path.get(i + 1) < n) {
+                    int a = path.get(i), b = path.get(i + 1);
+                    g2d.drawLine(screenX(index.x(a)), screenY(index.y(a)), screenX(index.x(b)), screenY(index.y(b)));
+                }
+            }
+            if (pickedNode != -1) {
+                g2d.setColor(PICKED_NODE_COLOR);
+                g2d.fillOval(screenX(index.x(pickedNode)) - 4, screenY(index.y(pickedNode)) - 4, 8, 8);
+            }
+            return;
+        }
+        g2d.translate(viewX, viewY);
+        g2d.scale(viewScale, viewScale);
+        boolean labels = viewScale >= LABEL_SCALE;
+        g2d.setFont(LABEL_FONT);
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int src = path.get(i), dest = path.get(i + 1);
+            if (src >= n || dest >= n) {
+                continue;
+            }
+            g2d.setStroke(PATH_STROKE);
+            g2d.setColor(HIGHLIGHTED_PATH_COLOR);
+            g2d.drawLine(index.x(src), index.y(src), index.x(dest), index.y(dest));
+            int wt = graph.lightestWeight(src, dest);
+            if (labels && wt != -1) {
+                drawWeightLabel(g2d, fm, src, dest, wt, HIGHLIGHTED_PATH_COLOR);
+            }
+        }
+        g2d.setStroke(NODE_BORDER_STROKE);
+        for (int v : path) {
+            if (v < n && v != pickedNode) {
+                drawNode(g2d, fm, v, HIGHLIGHTED_NODE_COLOR, labels);
             }
         }
-        return false;
+        if (pickedNode != -1) {
+            drawNode(g2d, fm, pickedNode, PICKED_NODE_COLOR, labels);
+        }
+    }
+
+    private Point toWorld(Point screen) {
+        return new Point((int) Math.round((screen.x - viewX) / viewScale),
+                (int) Math.round((screen.y - viewY) / viewScale));
+    }
+
+    // Node under the given screen point, or -1
+    private int nodeAt(Point screen) {
+        Point p = toWorld(screen);
+        int radius = Math.max(NODE_RADIUS, (int) Math.ceil(PICK_PIXELS / viewScale));
+        return index.nearestNode(p.x, p.y, radius);
+    }
+
+    private void resetView() {
+        viewScale = 1;
+        viewX = 0;
+        viewY = 0;
+        repaint();
     }
 
     private void handleMouseClick(MouseEvent e) {
+        // Ctrl+click picks the path source, then the destination
+        if (SwingUtilities.isLeftMouseButton(e) && e.isControlDown()) {
+            int node = nodeAt(e.getPoint());
+            if (node == -1) {
+                return;
+            }
+            if (pickedNode == -1 || pickedNode == node) {
+                pickedNode = pickedNode == node ? -1 : node;
+                pathVersion++;
+                repaint();
+            } else {
+                int source = pickedNode;
+                pickedNode = -1;
+                pathVersion++;
+                showShortestPath(source, node);
+            }
+        }
         // Left-click to create node
-        if (SwingUtilities.isLeftMouseButton(e)) {
-            Point p = e.getPoint();
-            nodes.add(p);
+        else if (SwingUtilities.isLeftMouseButton(e)) {
+            Point p = toWorld(e.getPoint());
+            graph.addNode();
             nodeCount++;
+            nodeAdded(p.x, p.y);
             isPathHighlighted = false; // Clear previous path
             updateStats();
             repaint();
             // Track action
-            undoStack.push(new AddNodeAction(p));
-            redoStack.clear();
+            history.record(new AddNodeAction(p));
         }
         // Right-click to connect nodes
         else if (SwingUtilities.isRightMouseButton(e)) {
             if (nodeCount > 1) {
-                showEdgeCreationDialog();
+                showEdgeCreationDialog(nodeAt(e.getPoint()));
             } else {
                 showMessage("Please create at least 2 nodes first!", "Info", JOptionPane.INFORMATION_MESSAGE);
             }
         }
     }
 
-    private void showEdgeCreationDialog() {
+    // source is the node that was right-clicked, or -1
+    private void showEdgeCreationDialog(int source) {
         JPanel panel = new JPanel(new GridLayout(3, 2, 10, 10));
         panel.setBorder(new EmptyBorder(20, 20, 20, 20));
         
-        JTextField sourceField = new JTextField();
+        JTextField sourceField = new JTextField(source == -1 ? "" : Integer.toString(source));
         JTextField destField = new JTextField();
         JTextField weightField = new JTextField();
         
-        // Ensure the first field gets focus when dialog appears
-        Timer timer = new Timer(100, e -> sourceField.requestFocusInWindow());
+        // Ensure the first empty field gets focus when dialog appears
+        JTextField first = source == -1 ? sourceField : destField;
+        Timer timer = new Timer(100, e -> first.requestFocusInWindow());
         timer.setRepeats(false);
         timer.start();
         
@@ -297,25 +686,20 @@ public class GraphGUI extends JFrame {
                 }
                 
                 // Check if edge already exists
-                boolean exists = false;
-                for (Edge edge : graph[src]) {
-                    if (edge.dest == dest) {
-                        showMessage("Edge already exists between these nodes!", "Warning", JOptionPane.WARNING_MESSAGE);
-                        exists = true;
-                        break;
-                    }
+                boolean exists = graph.hasEdge(src, dest);
+                if (exists) {
+                    showMessage("Edge already exists between these nodes!", "Warning", JOptionPane.WARNING_MESSAGE);
                 }
                 
                 if (!exists) {
                     Edge edge = new Edge(src, dest, wt);
-                    edges.add(edge);
-                    graph[src].add(edge);
+                    graph.addEdge(src, dest, wt);
+                    edgeAdded(edge);
                     isPathHighlighted = false; // Clear previous path
                     updateStats();
                     repaint();
                     // Track action
-                    undoStack.push(new AddEdgeAction(edge));
-                    redoStack.clear();
+                    history.record(new AddEdgeAction(edge));
                 }
                 
             } catch (NumberFormatException ex) {
@@ -324,6 +708,52 @@ public class GraphGUI extends JFrame {
         }
     }
 
+    // One "src dest weight" edge per line, added as a single undo step
+    private void bulkAddEdges() {
+        JTextArea area = new JTextArea(12, 24);
+        int result = JOptionPane.showConfirmDialog(this, new JScrollPane(area),
+                "Bulk Add Edges (src dest weight per line)", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int added = 0, skipped = 0;
+        history.beginGroup();
+        try {
+            for (String line : area.getText().split("\\R")) {
+                String[] parts = line.trim().split("[\\s,]+");
+                if (parts.length == 1 && parts[0].isEmpty()) {
+                    continue;
+                }
+                try {
+                    int src = Integer.parseInt(parts[0]);
+                    int dest = Integer.parseInt(parts[1]);
+                    int wt = Integer.parseInt(parts[2]);
+                    if (parts.length != 3 || src < 0 || src >= nodeCount || dest < 0 || dest >= nodeCount
+                            || wt <= 0 || graph.hasEdge(src, dest)) {
+                        skipped++;
+                        continue;
+                    }
+                    Edge edge = new Edge(src, dest, wt);
+                    graph.addEdge(src, dest, wt);
+                    edgeAdded(edge);
+                    history.record(new AddEdgeAction(edge));
+                    added++;
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                    skipped++;
+                }
+            }
+        } finally {
+            history.endGroup();
+        }
+        isPathHighlighted = false;
+        updateStats();
+        repaint();
+        if (skipped > 0) {
+            showMessage("Added " + added + " edges, skipped " + skipped + " invalid or duplicate lines.",
+                    "Bulk Add Edges", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
     private JPanel createControlPanel() {
         JPanel controlPanel = new JPanel();
         controlPanel.setLayout(new BoxLayout(controlPanel, BoxLayout.Y_AXIS));
@@ -364,11 +794,15 @@ public class GraphGUI extends JFrame {
 
         String[] instructions = {
             "• Left-click to create nodes",
-            "• Right-click to connect nodes",
+            "• Right-click a node to connect it",
             "• Enter source and destination IDs",
             "• Specify the weight/distance",
             "• Ctrl+z Undo, Ctrl+y Redo",
-            "• Click 'Find Shortest Path' to calculate"
+            "• Click 'Find Shortest Path' to calculate",
+            "• or Ctrl+click the source, then the destination",
+            "• Drag to pan, wheel to zoom, Ctrl+0 resets",
+            "• 'Alternative Paths', then [ and ] to cycle",
+            "• 'Reachable Within' shades nodes in budget"
         };
 
         panel.add(titleLabel);
@@ -393,6 +827,12 @@ public class GraphGUI extends JFrame {
         JButton findPathBtn = createStyledButton("Find Shortest Path", ACCENT_COLOR);
         findPathBtn.addActionListener(e -> findShortestPath());
 
+        JButton alternativesBtn = createStyledButton("Alternative Paths", new Color(39, 174, 96));
+        alternativesBtn.addActionListener(e -> findAlternatives());
+
+        JButton isochroneBtn = createStyledButton("Reachable Within", new Color(211, 84, 0));
+        isochroneBtn.addActionListener(e -> findIsochrone());
+
         JButton clearPathBtn = createStyledButton("Clear Path", new Color(149, 165, 166));
         clearPathBtn.addActionListener(e -> clearPath());
 
@@ -405,8 +845,21 @@ public class GraphGUI extends JFrame {
         JButton redoBtn = createStyledButton("Redo", new Color(52, 152, 219));
         redoBtn.addActionListener(e -> redo());
 
+        JButton saveBtn = createStyledButton("Save Graph", new Color(155, 89, 182));
+        saveBtn.addActionListener(e -> saveGraph());
+        JButton openBtn = createStyledButton("Open Graph", new Color(142, 68, 173));
+        openBtn.addActionListener(e -> openGraph());
+        JButton importBtn = createStyledButton("Import DIMACS/CSV", new Color(52, 73, 94));
+        importBtn.addActionListener(e -> importGraph());
+        JButton bulkBtn = createStyledButton("Bulk Add Edges", new Color(22, 160, 133));
+        bulkBtn.addActionListener(e -> bulkAddEdges());
+
         panel.add(findPathBtn);
         panel.add(Box.createVerticalStrut(10));
+        panel.add(alternativesBtn);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(isochroneBtn);
+        panel.add(Box.createVerticalStrut(10));
         panel.add(clearPathBtn);
         panel.add(Box.createVerticalStrut(10));
         panel.add(clearAllBtn);
@@ -414,6 +867,14 @@ public class GraphGUI extends JFrame {
         panel.add(undoBtn);
         panel.add(Box.createVerticalStrut(10));
         panel.add(redoBtn);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(saveBtn);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(openBtn);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(importBtn);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(bulkBtn);
 
         return panel;
     }
@@ -455,6 +916,12 @@ public class GraphGUI extends JFrame {
     private JPanel statsPanel;
     private JLabel nodesLabel;
     private JLabel edgesLabel;
+    private JLabel cacheLabel;
+    private JLabel searchLabel;
+    private JLabel queueLabel;
+    private JLabel latencyLabel;
+    private JLabel searchStatusLabel;
+    private JLabel historyLabel;
 
     private JPanel createStatsPanel() {
         statsPanel = new JPanel();
@@ -474,23 +941,80 @@ public class GraphGUI extends JFrame {
         nodesLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         nodesLabel.setForeground(new Color(127, 140, 141));
 
-        edgesLabel = new JLabel("Edges: " + edges.size());
+        edgesLabel = new JLabel("Edges: " + graph.edgeCount());
         edgesLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         edgesLabel.setForeground(new Color(127, 140, 141));
 
+        cacheLabel = new JLabel(cacheText());
+        cacheLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        cacheLabel.setForeground(new Color(127, 140, 141));
+
+        // Solver instrumentation, filled in by updateStats
+        searchLabel = new JLabel();
+        queueLabel = new JLabel();
+        latencyLabel = new JLabel();
+        searchStatusLabel = new JLabel("Search: idle");
+        historyLabel = new JLabel(historyText());
+        for (JLabel label : new JLabel[] {searchLabel, queueLabel, latencyLabel, searchStatusLabel, historyLabel}) {
+            label.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            label.setForeground(new Color(127, 140, 141));
+        }
+
         statsPanel.add(titleLabel);
         statsPanel.add(Box.createVerticalStrut(10));
         statsPanel.add(nodesLabel);
         statsPanel.add(Box.createVerticalStrut(5));
         statsPanel.add(edgesLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(cacheLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(searchLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(queueLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(latencyLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(searchStatusLabel);
+        statsPanel.add(Box.createVerticalStrut(5));
+        statsPanel.add(historyLabel);
 
         return statsPanel;
     }
 
+    private String historyText() {
+        return String.format("History: %d undo / %d redo, %d of %d KB", history.undoSize(), history.redoSize(),
+                history.bytes() >> 10, history.budget() >> 10);
+    }
+
+    private String cacheText() {
+        return "Path cache: " + pathCache.hits() + " hits / " + pathCache.misses() + " misses";
+    }
+
+    private void updateSolverStats() {
+        if (!SolverMetrics.enabled()) {
+            searchLabel.setText("Solver metrics: off (-Ddijkstras.metrics=true)");
+            return;
+        }
+        SolverMetrics metrics = SolverMetrics.get();
+        SearchStats last = metrics.last();
+        if (last == null) {
+            searchLabel.setText("Last search: -");
+            queueLabel.setText("Queue: -");
+        } else {
+            searchLabel.setText("Last search: " + last.settled + " settled, " + last.relaxed + " relaxed");
+            queueLabel.setText("Queue: " + last.pushes + " push / " + last.pops + " pop / " + last.stalePops + " stale");
+        }
+        latencyLabel.setText(String.format("Latency p50 %d us, p99 %d us (%d searches)",
+                metrics.getLatencyP50Micros(), metrics.getLatencyP99Micros(), metrics.getSearches()));
+    }
+
     private void updateStats() {
         if (nodesLabel != null && edgesLabel != null) {
             nodesLabel.setText("Nodes: " + nodeCount);
-            edgesLabel.setText("Edges: " + edges.size());
+            edgesLabel.setText("Edges: " + graph.edgeCount());
+            cacheLabel.setText(cacheText());
+            historyLabel.setText(historyText());
+            updateSolverStats();
             statsPanel.revalidate();
             statsPanel.repaint();
         }
@@ -530,25 +1054,458 @@ public class GraphGUI extends JFrame {
                     showMessage("Invalid node IDs! Use IDs from 0 to " + (nodeCount - 1), "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
+                showShortestPath(source, destination);
+                
+            } catch (NumberFormatException ex) {
+                showMessage("Please enter valid numbers!", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    private void showShortestPath(int source, int destination) {
+        if (reachability.unreachable(source, destination)) {
+            showMessage("No path exists between the selected nodes!", "No Path", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        rebuildReachability();
+        // A cached tree is kept current across edits and answers at once
+        ShortestPathTree tree = pathCache.get(source, graphVersion);
+        if (tree != null) {
+            updateStats();
+            showPathTo(tree, destination);
+            return;
+        }
+        startSearch(source, destination);
+    }
+
+    private void showPathTo(ShortestPathTree tree, int destination) {
+        DijkstrasAlgorithm.Result resultObj = tree.pathTo(destination);
+        if (resultObj.distance == -1) {
+            showMessage("No path exists between the selected nodes!", "No Path", JOptionPane.WARNING_MESSAGE);
+        } else {
+            highlightedPath = resultObj.path;
+            isPathHighlighted = true;
+            pathVersion++;
+            repaint();
+
+            // Show result dialog
+            showPathResult(resultObj);
+        }
+    }
+
+    // Runs the search on the background thread, pre-empting any search in progress.
+    // With landmark bounds it is an A* search for destination alone; otherwise the
+    // whole tree is built and cached for later queries from the same source.
+    private void startSearch(int source, int destination) {
+        cancelSearch();
+        currentSearch = new PathWorker(graph, graphVersion, source, destination, altIndex);
+        searchStatusLabel.setText("Searching from " + source + "... (Esc cancels)");
+        searchExecutor.execute(currentSearch);
+        buildAltIndex();
+    }
+
+    // Starts a landmark build for a big graph that has none. It runs on Swing's
+    // worker threads, not the search thread, so searches never queue behind it.
+    // A build that finishes after an edit is dropped and the next search retries.
+    private void buildAltIndex() {
+        if (altIndex != null || altBuild != null || nodeCount < ALT_MIN_NODES) {
+            return;
+        }
+        GraphStore store = graph;
+        long version = graphVersion;
+        altBuild = new SwingWorker<AltIndex, Void>() {
+            @Override
+            protected AltIndex doInBackground() {
+                return AltIndex.build(snapshot(store, version), reverseSnapshot(store, version), ALT_LANDMARKS);
+            }
+
+            @Override
+            protected void done() {
+                if (altBuild != this) {
+                    return; // the graph was replaced meanwhile
+                }
+                altBuild = null;
+                if (graphVersion != version) {
+                    return;
+                }
+                try {
+                    altIndex = get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    // Searches simply stay undirected
+                }
+            }
+        };
+        altBuild.execute();
+    }
+
+    // Replaces a stale reachability index with one built from a snapshot on
+    // Swing's worker threads. Until it is installed, queries the stale parts
+    // cannot answer simply go on to search; after an edit it is dropped.
+    private void rebuildReachability() {
+        if (!reachability.isStale() || reachabilityBuild != null) {
+            return;
+        }
+        GraphStore store = graph;
+        long version = graphVersion;
+        reachabilityBuild = new SwingWorker<ReachabilityIndex, Void>() {
+            @Override
+            protected ReachabilityIndex doInBackground() {
+                return ReachabilityIndex.of(snapshot(store, version));
+            }
+
+            @Override
+            protected void done() {
+                reachabilityBuild = null;
+                if (graphVersion != version) {
+                    return;
+                }
+                try {
+                    reachability = get();
+                } catch (InterruptedException | ExecutionException ex) {
+                    // The stale index stays, rejecting less
+                }
+            }
+        };
+        reachabilityBuild.execute();
+    }
+
+    // For background jobs, given the store and version they were started on. The
+    // copy is made off the event thread; if edits go on meanwhile it holds them
+    // too, but then the version has moved on and the job's result is dropped.
+    private CsrGraph snapshot(GraphStore store, long version) {
+        synchronized (snapshotLock) {
+            if (snapshotVersion != version) {
+                snapshot = store.toCsr();
+                snapshotVersion = version;
+            }
+            return snapshot;
+        }
+    }
 
-                // Call Dijkstra's algorithm with path
-                DijkstrasAlgorithm.Result resultObj = DijkstrasAlgorithm.dijkstraWithPath(graph, source, destination);
+    private CsrGraph reverseSnapshot(GraphStore store, long version) {
+        synchronized (snapshotLock) {
+            CsrGraph csr = snapshot(store, version);
+            if (reverseVersion != version) {
+                snapshotReverse = csr.reverse();
+                reverseVersion = version;
+            }
+            return snapshotReverse;
+        }
+    }
 
-                if (resultObj.distance == -1) {
+    // Up to k loopless paths by increasing distance, computed on the search thread
+    private void findAlternatives() {
+        if (nodeCount < 2) {
+            showMessage("Please create at least 2 nodes first!", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JPanel panel = new JPanel(new GridLayout(3, 2, 10, 10));
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        JTextField sourceField = new JTextField(pickedNode == -1 ? "" : Integer.toString(pickedNode));
+        JTextField destField = new JTextField();
+        JTextField countField = new JTextField("5");
+        panel.add(new JLabel("Source Node ID:"));
+        panel.add(sourceField);
+        panel.add(new JLabel("Destination Node ID:"));
+        panel.add(destField);
+        panel.add(new JLabel("Number of paths:"));
+        panel.add(countField);
+        int result = JOptionPane.showConfirmDialog(this, panel, "Alternative Paths",
+                                                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int source, destination, k;
+        try {
+            source = Integer.parseInt(sourceField.getText().trim());
+            destination = Integer.parseInt(destField.getText().trim());
+            k = Integer.parseInt(countField.getText().trim());
+        } catch (NumberFormatException ex) {
+            showMessage("Please enter valid numbers!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (source < 0 || source >= nodeCount || destination < 0 || destination >= nodeCount) {
+            showMessage("Invalid node IDs! Use IDs from 0 to " + (nodeCount - 1), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (k < 1 || k > 100) {
+            showMessage("Number of paths must be between 1 and 100!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        if (reachability.unreachable(source, destination)) {
+            showMessage("No path exists between the selected nodes!", "No Path", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        rebuildReachability();
+        cancelSearch();
+        GraphStore store = graph;
+        long version = graphVersion;
+        searchStatusLabel.setText("Finding " + k + " paths from " + source + "... (Esc cancels)");
+        currentSearch = new SearchJob<List<DijkstrasAlgorithm.Result>, Void>() {
+            @Override
+            protected List<DijkstrasAlgorithm.Result> doInBackground() {
+                return KShortestPaths.find(snapshot(store, version), reverseSnapshot(store, version),
+                        source, destination, k, ForkJoinPool.commonPool(), this::isStopped);
+            }
+
+            @Override
+            protected void done() {
+                if (currentSearch != this) {
+                    return; // pre-empted or cancelled
+                }
+                currentSearch = null;
+                searchStatusLabel.setText("Search: idle");
+                if (graphVersion != version) {
+                    return; // edited meanwhile, the paths may no longer exist
+                }
+                List<DijkstrasAlgorithm.Result> paths;
+                try {
+                    paths = get();
+                } catch (Exception ex) {
+                    showMessage("Search failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                if (paths.isEmpty()) {
                     showMessage("No path exists between the selected nodes!", "No Path", JOptionPane.WARNING_MESSAGE);
-                } else {
-                    highlightedPath = resultObj.path;
-                    isPathHighlighted = true;
-                    repaint();
-                    
-                    // Show result dialog
-                    showPathResult(resultObj);
+                    return;
                 }
-                
-            } catch (NumberFormatException ex) {
-                showMessage("Please enter valid numbers!", "Error", JOptionPane.ERROR_MESSAGE);
+                alternatives = paths;
+                alternativesVersion = version;
+                showAlternative(0);
+            }
+        };
+        searchExecutor.execute(currentSearch);
+    }
+
+    // Shade every node within a distance budget of a source, searched on the search thread
+    private void findIsochrone() {
+        if (nodeCount < 1) {
+            showMessage("Please create a node first!", "Info", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JPanel panel = new JPanel(new GridLayout(2, 2, 10, 10));
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        JTextField sourceField = new JTextField(pickedNode == -1 ? "" : Integer.toString(pickedNode));
+        JTextField budgetField = new JTextField();
+        panel.add(new JLabel("Source Node ID:"));
+        panel.add(sourceField);
+        panel.add(new JLabel("Distance budget:"));
+        panel.add(budgetField);
+        int result = JOptionPane.showConfirmDialog(this, panel, "Reachable Within",
+                                                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        int source, budget;
+        try {
+            source = Integer.parseInt(sourceField.getText().trim());
+            budget = Integer.parseInt(budgetField.getText().trim());
+        } catch (NumberFormatException ex) {
+            showMessage("Please enter valid numbers!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (source < 0 || source >= nodeCount) {
+            showMessage("Invalid node ID! Use IDs from 0 to " + (nodeCount - 1), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (budget < 0) {
+            showMessage("The budget cannot be negative!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        cancelSearch();
+        GraphStore store = graph;
+        long version = graphVersion;
+        searchStatusLabel.setText("Finding nodes within " + budget + " of " + source + "... (Esc cancels)");
+        currentSearch = new SearchJob<RangeQuery.Result, Void>() {
+            @Override
+            protected RangeQuery.Result doInBackground() {
+                return RangeQuery.run(snapshot(store, version), source, budget, this::isStopped);
+            }
+
+            @Override
+            protected void done() {
+                if (currentSearch != this) {
+                    return;
+                }
+                currentSearch = null;
+                if (graphVersion != version) {
+                    searchStatusLabel.setText("Search: idle");
+                    return;
+                }
+                try {
+                    isochrone = get();
+                } catch (Exception ex) {
+                    searchStatusLabel.setText("Search: idle");
+                    showMessage("Search failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                isochroneVersion = version;
+                isochroneId++;
+                searchStatusLabel.setText(String.format("%d nodes within %d of node %d",
+                        isochrone.size(), budget, source));
+                canvas.repaint();
+            }
+        };
+        searchExecutor.execute(currentSearch);
+    }
+
+    private void showAlternative(int i) {
+        alternative = i;
+        DijkstrasAlgorithm.Result path = alternatives.get(i);
+        highlightedPath = path.path;
+        isPathHighlighted = true;
+        pathVersion++;
+        searchStatusLabel.setText(String.format("Path %d of %d: distance %d ([ and ] cycle)",
+                i + 1, alternatives.size(), path.distance));
+        canvas.repaint();
+    }
+
+    private void cycleAlternative(int step) {
+        if (alternatives.isEmpty() || alternativesVersion != graphVersion) {
+            return;
+        }
+        showAlternative(Math.floorMod(alternative + step, alternatives.size()));
+    }
+
+    private void cancelSearch() {
+        if (currentSearch != null) {
+            SearchJob<?, ?> search = currentSearch;
+            currentSearch = null; // first, since stop() runs done() right away on this thread
+            search.stop();
+            searchStatusLabel.setText("Search: idle");
+        }
+        clearExplored();
+    }
+
+    private void clearExplored() {
+        exploredCount = 0;
+        exploredDrawn = 0;
+        searchId++;
+        if (canvas != null) {
+            canvas.repaint();
+        }
+    }
+
+    // A job for the search thread. The searches it runs poll isStopped(), so
+    // stop() ends them soon after, not only their reporting.
+    private abstract class SearchJob<T, V> extends SwingWorker<T, V> {
+        private volatile boolean stopped;
+
+        boolean isStopped() {
+            return stopped;
+        }
+
+        void stop() {
+            stopped = true;
+            cancel(false);
+        }
+    }
+
+    // Snapshots the graph and runs the search on the search thread, publishes
+    // each progress batch to the event thread, where it is appended to the
+    // explored layer, and hands the finished tree to the dynamic engine
+    private class PathWorker extends SearchJob<Boolean, int[]> {
+        private final GraphStore store;
+        private final long version;
+        private final int source, destination;
+        private final AltIndex alt; // null for a full tree
+        private volatile SearchTask task; // null until the snapshot is taken
+        private int settled, frontier;
+
+        PathWorker(GraphStore store, long version, int source, int destination, AltIndex alt) {
+            this.store = store;
+            this.version = version;
+            this.source = source;
+            this.destination = destination;
+            this.alt = alt;
+        }
+
+        @Override
+        void stop() {
+            super.stop();
+            SearchTask running = task;
+            if (running != null) {
+                running.cancel(); // else doInBackground sees the flag after creating it
             }
         }
+
+        @Override
+        protected Boolean doInBackground() {
+            CsrGraph csr = snapshot(store, version);
+            task = alt == null ? new SearchTask(csr, source)
+                    : new SearchTask(csr, source, destination, v -> alt.lowerBound(v, destination));
+            if (isStopped()) {
+                return false;
+            }
+            return task.run((batch, settledTotal, frontierSize) -> {
+                settled = settledTotal;
+                frontier = frontierSize;
+                publish(batch);
+            });
+        }
+
+        @Override
+        protected void process(List<int[]> batches) {
+            if (currentSearch != this || graphVersion != version) {
+                return;
+            }
+            for (int[] batch : batches) {
+                if (exploredCount + batch.length > explored.length) {
+                    explored = Arrays.copyOf(explored, Math.max(exploredCount + batch.length, explored.length * 2));
+                }
+                System.arraycopy(batch, 0, explored, exploredCount, batch.length);
+                exploredCount += batch.length;
+            }
+            searchStatusLabel.setText(String.format("Searching: %d settled (%d%%), frontier %d",
+                    settled, 100L * settled / Math.max(1, nodeCount), frontier));
+            canvas.repaint();
+        }
+
+        @Override
+        protected void done() {
+            if (currentSearch != this) {
+                return; // pre-empted or cancelled
+            }
+            currentSearch = null;
+            searchStatusLabel.setText("Search: idle");
+            clearExplored();
+            boolean finished;
+            try {
+                finished = get();
+            } catch (Exception ex) {
+                showMessage("Search failed: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (!finished) {
+                return;
+            }
+            if (graphVersion != version) {
+                // Edited while searching: the tree is stale, so search the new graph
+                if (source < nodeCount && destination < nodeCount) {
+                    startSearch(source, destination);
+                }
+                return;
+            }
+            if (alt != null) {
+                DijkstrasAlgorithm.Result result = DijkstrasAlgorithm.buildResult(task.dist(), task.parent(), destination, settled);
+                if (result.distance == -1) {
+                    showMessage("No path exists between the selected nodes!", "No Path", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                highlightedPath = result.path;
+                isPathHighlighted = true;
+                pathVersion++;
+                repaint();
+                showPathResult(result);
+                return;
+            }
+            ShortestPathTree tree = dynamicPaths.adopt(source, task.dist(), task.parent());
+            pathCache.put(tree, graphVersion);
+            updateStats();
+            showPathTo(tree, destination);
+        }
     }
 
     private void showPathResult(DijkstrasAlgorithm.Result result) {
@@ -568,8 +1525,12 @@ public class GraphGUI extends JFrame {
     }
 
     private void clearPath() {
+        cancelSearch();
         isPathHighlighted = false;
         highlightedPath.clear();
+        pathVersion++;
+        isochrone = null;
+        isochroneId++;
         repaint();
     }
 
@@ -580,29 +1541,226 @@ public class GraphGUI extends JFrame {
         
         if (confirm == JOptionPane.YES_OPTION) {
             // Track action
-            undoStack.push(new ClearAllAction(nodes, edges, graph, nodeCount));
-            redoStack.clear();
-            nodes.clear();
-            edges.clear();
-            nodeCount = 0;
+            ClearAllAction action = new ClearAllAction();
+            action.redo();
+            history.record(action);
             isPathHighlighted = false;
             highlightedPath.clear();
             
-            // Clear graph
-            for (int i = 0; i < 100; i++) {
-                graph[i].clear();
-            }
-            
             updateStats();
             repaint();
         }
     }
 
+    private void saveGraph() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        int[] x = new int[nodeCount];
+        int[] y = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            x[i] = index.x(i);
+            y[i] = index.y(i);
+        }
+        try {
+            GraphFile.save(chooser.getSelectedFile().toPath(), graph.toCsr(), x, y);
+        } catch (IOException ex) {
+            showMessage("Could not save graph: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openGraph() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path file = chooser.getSelectedFile().toPath();
+        GraphFile loaded;
+        try {
+            loaded = GraphFile.open(file);
+        } catch (IOException ex) {
+            showMessage("Could not open graph: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        CsrGraph csr = loaded.graph();
+        int[] x = null, y = null;
+        if (loaded.hasCoordinates()) {
+            x = new int[csr.nodeCount()];
+            y = new int[csr.nodeCount()];
+            for (int v = 0; v < x.length; v++) {
+                x[v] = loaded.x(v);
+                y[v] = loaded.y(v);
+            }
+        }
+        loadGraph(csr, x, y);
+    }
+
+    private void importGraph() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        GraphImporter.Import imported;
+        try {
+            imported = GraphImporter.read(chooser.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            showMessage("Could not import graph: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int[] x = imported.x, y = imported.y;
+        if (x != null) {
+            fitToCanvas(x, y);
+        }
+        loadGraph(imported.graph, x, y);
+        showMessage(String.format("Imported %d nodes and %d edges in %d ms (%.1f MB/s, %.0f edges/s)",
+                        imported.graph.nodeCount(), imported.graph.edgeCount(), imported.nanos / 1_000_000,
+                        imported.megabytesPerSecond(), imported.edgesPerSecond()),
+                "Import", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // Scale imported coordinates (e.g. DIMACS microdegrees) into the canvas
+    private static void fitToCanvas(int[] x, int[] y) {
+        if (x.length == 0) {
+            return;
+        }
+        long minX = Long.MAX_VALUE, maxX = Long.MIN_VALUE, minY = Long.MAX_VALUE, maxY = Long.MIN_VALUE;
+        for (int v = 0; v < x.length; v++) {
+            minX = Math.min(minX, x[v]);
+            maxX = Math.max(maxX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxY = Math.max(maxY, y[v]);
+        }
+        double scale = Math.min(720.0 / Math.max(1, maxX - minX), 520.0 / Math.max(1, maxY - minY));
+        for (int v = 0; v < x.length; v++) {
+            x[v] = 40 + (int) ((x[v] - minX) * scale);
+            y[v] = 560 - (int) ((y[v] - minY) * scale); // north up
+        }
+    }
+
+    // Replace the editor contents with csr; x and y may be null. The graph stays
+    // in primitive form: the store reads csr until nodes are edited, and the
+    // index holds the coordinates and endpoints, so no object is made per element.
+    private void loadGraph(CsrGraph csr, int[] x, int[] y) {
+        int n = csr.nodeCount();
+        graph = new GraphStore(csr);
+        index = new SpatialIndex();
+        for (int v = 0; v < n; v++) {
+            if (x != null) {
+                index.addNode(x[v], y[v]);
+            } else {
+                // No layout stored: place the nodes on a circle
+                double angle = 2 * Math.PI * v / n;
+                index.addNode(400 + (int) (250 * Math.cos(angle)), 300 + (int) (250 * Math.sin(angle)));
+            }
+        }
+        edgeWeights = new int[Math.max(16, csr.edgeCount())];
+        for (int v = 0; v < n; v++) {
+            for (int e = csr.begin(v); e < csr.end(v); e++) {
+                index.addEdge(v, csr.target(e)); // edge ids follow csr, so e is the id
+                edgeWeights[e] = csr.weight(e);
+            }
+        }
+        nodeCount = n;
+        graphReset();
+        resetView();
+        // Loading replaces the whole document, so there is nothing left to undo
+        history.clear();
+        isPathHighlighted = false;
+        highlightedPath.clear();
+        updateStats();
+        repaint();
+    }
+
+    // Mutation hooks. Each one bumps the graph version; single-node and single-edge
+    // edits are applied to the dynamic engine, which repairs the trees of cached
+    // sources, and the cache is re-stamped with the repaired trees.
+    private void nodeAdded(int x, int y) {
+        index.addNode(x, y);
+        dynamicPaths.addNode();
+        reachability.addNode();
+        if (altIndex != null) {
+            altIndex.ensureCapacity(nodeCount);
+        }
+        graphRepaired();
+    }
+
+    private void nodeRemoved() {
+        index.removeLastNode();
+        if (pickedNode == nodeCount) {
+            pickedNode = -1;
+        }
+        dynamicPaths.removeLastNode();
+        reachability.invalidate();
+        graphRepaired();
+    }
+
+    private void edgeAdded(Edge edge) {
+        int id = index.addEdge(edge.src, edge.dest);
+        if (id == edgeWeights.length) {
+            edgeWeights = Arrays.copyOf(edgeWeights, id * 2);
+        }
+        edgeWeights[id] = edge.wt;
+        dynamicPaths.insertEdge(edge.src, edge.dest, edge.wt);
+        reachability.addEdge(edge.src, edge.dest);
+        if (altIndex != null) {
+            // A search overlapping the refresh may read half-updated bounds, but
+            // its result is discarded anyway since the version changes below
+            altIndex.edgeAdded(graph, edge.src, edge.dest, edge.wt);
+        }
+        graphRepaired();
+    }
+
+    private void edgeRemoved(Edge edge) {
+        index.removeLastEdge();
+        dynamicPaths.deleteEdge(edge.src, edge.dest, edge.wt);
+        reachability.invalidate();
+        altIndex = null; // bounds that were exact may now overestimate
+        graphRepaired();
+    }
+
+    private void graphRepaired() {
+        graphVersion++;
+        pathCache.revalidate(graphVersion, dynamicPaths::tree);
+    }
+
+    // The whole graph was replaced, index included: drop every cached tree and start a new engine on it
+    private void graphReset() {
+        cancelSearch(); // its node ids refer to the old graph
+        graphVersion++;
+        pathCache.clear();
+        dynamicPaths = new DynamicShortestPaths(graph);
+        reachability.invalidate();
+        dropAltIndex();
+        pickedNode = -1;
+    }
+
+    // The document was swapped for another whose engine and index are already
+    // built, as by Clear All and its undo; only per-graph caches are dropped
+    private void graphSwapped() {
+        cancelSearch();
+        graphVersion++;
+        pathCache.clear();
+        reachability.invalidate();
+        dropAltIndex();
+        pickedNode = -1;
+    }
+
+    private void dropAltIndex() {
+        altIndex = null;
+        if (altBuild != null) {
+            SwingWorker<AltIndex, Void> build = altBuild;
+            altBuild = null; // first, since cancel() runs done() right away on this thread
+            build.cancel(false); // AltIndex.build cannot stop early, but its result is ignored
+        }
+    }
+
     private void showMessage(String message, String title, int messageType) {
         JOptionPane.showMessageDialog(this, message, title, messageType);
     }
 
     public static void main(String[] args) {
+        SolverMetrics.registerMBean();
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
@@ -625,93 +1783,80 @@ public class GraphGUI extends JFrame {
         }
     }
 
-    // Action base class and subclasses
-    private abstract class Action {
-        abstract void undo();
-        abstract void redo();
-    }
-    private class AddNodeAction extends Action {
+    // Editor commands. They only change the document; undo() and redo() below
+    // refresh the statistics and canvas once per step, so grouped edits do too.
+    private static final long NODE_BYTES = 120; // Point, store slots, engine and index entries
+    private static final long EDGE_BYTES = 80;
+
+    private class AddNodeAction implements EditHistory.Edit {
         private final Point point;
         public AddNodeAction(Point point) { this.point = point; }
-        void undo() {
-            nodes.remove(nodes.size() - 1);
+        public void undo() {
+            graph.removeLastNode();
             nodeCount--;
-            updateStats();
-            repaint();
+            nodeRemoved();
         }
-        void redo() {
-            nodes.add(point);
+        public void redo() {
+            graph.addNode();
             nodeCount++;
-            updateStats();
-            repaint();
+            nodeAdded(point.x, point.y);
         }
+        public long bytes() { return NODE_BYTES; }
     }
-    private class AddEdgeAction extends Action {
+    private class AddEdgeAction implements EditHistory.Edit {
         private final Edge edge;
         public AddEdgeAction(Edge edge) { this.edge = edge; }
-        void undo() {
-            edges.remove(edge);
-            graph[edge.src].removeIf(e -> e.dest == edge.dest && e.wt == edge.wt);
-            updateStats();
-            repaint();
+        public void undo() {
+            graph.removeEdge(edge.src, edge.dest, edge.wt);
+            edgeRemoved(edge);
         }
-        void redo() {
-            edges.add(edge);
-            graph[edge.src].add(edge);
-            updateStats();
-            repaint();
+        public void redo() {
+            graph.addEdge(edge.src, edge.dest, edge.wt);
+            edgeAdded(edge);
         }
+        public long bytes() { return EDGE_BYTES; }
     }
-    private class ClearAllAction extends Action {
-        private final ArrayList<Point> oldNodes;
-        private final ArrayList<Edge> oldEdges;
-        private final ArrayList<Edge>[] oldGraph;
-        private final int oldNodeCount;
-        public ClearAllAction(ArrayList<Point> nodes, ArrayList<Edge> edges, ArrayList<Edge>[] graph, int nodeCount) {
-            this.oldNodes = new ArrayList<>(nodes);
-            this.oldEdges = new ArrayList<>(edges);
-            this.oldGraph = new ArrayList[100];
-            for (int i = 0; i < 100; i++) {
-                this.oldGraph[i] = new ArrayList<>(graph[i]);
-            }
-            this.oldNodeCount = nodeCount;
-        }
-        void undo() {
-            nodes.clear();
-            nodes.addAll(oldNodes);
-            edges.clear();
-            edges.addAll(oldEdges);
-            for (int i = 0; i < 100; i++) {
-                graph[i].clear();
-                graph[i].addAll(oldGraph[i]);
-            }
+    // Keeps the cleared document itself, including the engine and index built
+    // over it, so both directions are a swap and nothing is copied or rebuilt
+    private class ClearAllAction implements EditHistory.Edit {
+        private final GraphStore oldGraph = graph;
+        private final int[] oldWeights = edgeWeights;
+        private final int oldNodeCount = nodeCount;
+        private final DynamicShortestPaths oldPaths = dynamicPaths;
+        private final SpatialIndex oldIndex = index;
+
+        public void undo() {
+            pathCache.clear(); // unwatches the trees of the engine being swapped out
+            graph = oldGraph;
+            edgeWeights = oldWeights;
             nodeCount = oldNodeCount;
-            updateStats();
-            repaint();
+            dynamicPaths = oldPaths;
+            index = oldIndex;
+            graphSwapped();
         }
-        void redo() {
-            nodes.clear();
-            edges.clear();
+        public void redo() {
+            pathCache.clear();
+            graph = new GraphStore();
+            edgeWeights = new int[16];
             nodeCount = 0;
-            for (int i = 0; i < 100; i++) graph[i].clear();
-            updateStats();
-            repaint();
+            dynamicPaths = new DynamicShortestPaths(graph);
+            index = new SpatialIndex();
+            graphSwapped();
         }
+        public long bytes() { return oldNodeCount * NODE_BYTES + oldGraph.edgeCount() * EDGE_BYTES; }
     }
 
     // Undo/Redo methods
     private void undo() {
-        if (!undoStack.isEmpty()) {
-            Action action = undoStack.pop();
-            action.undo();
-            redoStack.push(action);
+        if (history.undo()) {
+            updateStats();
+            repaint();
         }
     }
     private void redo() {
-        if (!redoStack.isEmpty()) {
-            Action action = redoStack.pop();
-            action.redo();
-            undoStack.push(action);
+        if (history.redo()) {
+            updateStats();
+            repaint();
         }
     }
 }
@@ -0,0 +1,311 @@
+package com.dijkstras;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Streaming import of benchmark graphs:
+//
+//     DIMACS .gr   "p sp <n> <m>" then one "a <u> <v> <w>" per arc, 1-based ids
+//     DIMACS .co   "p aux sp co <n>" then one "v <id> <x> <y>" per node
+//     edge list    "<u>,<v>[,<w>]" per line, 0-based ids; spaces, tabs or
+//                  semicolons also separate fields, lines not starting with a
+//                  number (headers, # comments) are skipped, a missing weight is 1
+//
+// Input is parsed byte by byte from a reused NIO buffer, without building a
+// String per line. The file is read twice: the first pass counts out-degrees,
+// the second drops every edge straight into its CSR slot, so memory is the
+// final graph plus one int per node.
+public class GraphImporter {
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    static class Import {
+        final CsrGraph graph;
+        final int[] x, y; // null when no coordinates were read
+        final long bytes; // size of the input files
+        final long nanos; // wall time of the whole import
+
+        Import(CsrGraph graph, int[] x, int[] y, long bytes, long nanos) {
+            this.graph = graph;
+            this.x = x;
+            this.y = y;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        double megabytesPerSecond() {
+            return bytes / 1e6 / Math.max(1e-9, nanos / 1e9);
+        }
+
+        double edgesPerSecond() {
+            return graph.edgeCount() / Math.max(1e-9, nanos / 1e9);
+        }
+    }
+
+    // .gr files are read as DIMACS, together with a .co file of the same name
+    // when one exists; anything else is read as an edge list
+    public static Import read(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gr")) {
+            Path co = file.resolveSibling(name.substring(0, name.length() - 3) + ".co");
+            return dimacs(file, Files.exists(co) ? co : null);
+        }
+        return edgeList(file);
+    }
+
+    // coordinates may be null
+    public static Import dimacs(Path graphFile, Path coordinates) throws IOException {
+        long start = System.nanoTime();
+        CsrGraph graph = build(graphFile, true);
+        int[] x = null, y = null;
+        long bytes = Files.size(graphFile);
+        if (coordinates != null) {
+            int n = graph.nodeCount();
+            x = new int[n];
+            y = new int[n];
+            readCoordinates(coordinates, x, y);
+            bytes += Files.size(coordinates);
+        }
+        return new Import(graph, x, y, bytes, System.nanoTime() - start);
+    }
+
+    public static Import edgeList(Path file) throws IOException {
+        long start = System.nanoTime();
+        CsrGraph graph = build(file, false);
+        return new Import(graph, null, null, Files.size(file), System.nanoTime() - start);
+    }
+
+    private interface EdgeVisitor {
+        void edge(int u, int v, int w);
+    }
+
+    private static CsrGraph build(Path file, boolean dimacs) throws IOException {
+        // Pass 1: out-degree of every node, stored shifted by one so the prefix
+        // sum turns it into offsets in place
+        int[][] degree = {new int[1024]};
+        int[] maxNode = {-1};
+        int[] edges = {0};
+        int declared = scan(file, dimacs, (u, v, w) -> {
+            int top = Math.max(u, v);
+            if (top + 2 > degree[0].length) {
+                degree[0] = Arrays.copyOf(degree[0], Math.max(top + 2, degree[0].length * 2));
+            }
+            maxNode[0] = Math.max(maxNode[0], top);
+            degree[0][u + 1]++;
+            edges[0]++;
+        });
+        int n = declared >= 0 ? declared : maxNode[0] + 1;
+        int[] offsets = Arrays.copyOf(degree[0], n + 1);
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // Pass 2: fill targets and weights, advancing one cursor per node
+        int m = edges[0];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        scan(file, dimacs, (u, v, w) -> {
+            int slot = cursor[u]++;
+            targets[slot] = v;
+            weights[slot] = w;
+        });
+        return CsrGraph.of(offsets, targets, weights);
+    }
+
+    // Feeds every edge of file to visitor; returns the node count declared by a
+    // DIMACS problem line, or -1 for edge lists
+    private static int scan(Path file, boolean dimacs, EdgeVisitor visitor) throws IOException {
+        int n = -1;
+        try (Scanner in = new Scanner(file)) {
+            int c;
+            while ((c = in.first()) != -1) {
+                if (dimacs) {
+                    if (c == 'p') {
+                        in.skipWord();
+                        in.skipWord(); // "sp"
+                        n = in.nextInt();
+                        in.nextInt(); // arc count, recounted in pass 1
+                    } else if (c == 'a') {
+                        if (n < 0) {
+                            throw in.error("arc before the problem line");
+                        }
+                        in.skipWord();
+                        int u = in.nextNode(1, n);
+                        int v = in.nextNode(1, n);
+                        visitor.edge(u, v, in.nextWeight());
+                    }
+                } else if (c >= '0' && c <= '9') {
+                    int u = in.nextNode(0, Integer.MAX_VALUE - 2);
+                    int v = in.nextNode(0, Integer.MAX_VALUE - 2);
+                    visitor.edge(u, v, in.atLineEnd() ? 1 : in.nextWeight());
+                }
+                in.skipLine();
+            }
+        }
+        return n;
+    }
+
+    private static void readCoordinates(Path file, int[] x, int[] y) throws IOException {
+        int n = x.length;
+        try (Scanner in = new Scanner(file)) {
+            int c;
+            while ((c = in.first()) != -1) {
+                if (c == 'p') {
+                    in.skipWord();
+                    in.skipWord(); // "aux"
+                    in.skipWord(); // "sp"
+                    in.skipWord(); // "co"
+                    if (in.nextInt() != n) {
+                        throw in.error("coordinate file does not match the graph's " + n + " nodes");
+                    }
+                } else if (c == 'v') {
+                    in.skipWord();
+                    int v = in.nextNode(1, n);
+                    x[v] = in.nextInt();
+                    y[v] = in.nextInt();
+                }
+                in.skipLine();
+            }
+        }
+    }
+
+    // Byte-level tokenizer over a reused buffer
+    private static final class Scanner implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private final byte[] bytes = buffer.array();
+        private int pos, limit;
+        private long line = 1;
+
+        Scanner(Path file) throws IOException {
+            this.file = file;
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        int peek() throws IOException {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            return bytes[pos];
+        }
+
+        private boolean fill() throws IOException {
+            buffer.clear();
+            int read = channel.read(buffer);
+            pos = 0;
+            limit = Math.max(0, read);
+            return read > 0;
+        }
+
+        private void skipBlanks() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == ',' || c == ';' || c == '\r') {
+                pos++;
+            }
+        }
+
+        // First byte of the next token
+        int first() throws IOException {
+            skipBlanks();
+            return peek();
+        }
+
+        boolean atLineEnd() throws IOException {
+            skipBlanks();
+            int c = peek();
+            return c == -1 || c == '\n';
+        }
+
+        void skipWord() throws IOException {
+            skipBlanks();
+            int c;
+            while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                pos++;
+            }
+        }
+
+        void skipLine() throws IOException {
+            int c;
+            while ((c = peek()) != -1) {
+                pos++;
+                if (c == '\n') {
+                    line++;
+                    return;
+                }
+            }
+        }
+
+        // Integer with optional sign; a fractional part is rounded away
+        long nextLong() throws IOException {
+            skipBlanks();
+            boolean negative = peek() == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            int c;
+            while ((c = peek()) >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 18) {
+                    throw error("number too long");
+                }
+                pos++;
+            }
+            if (digits == 0) {
+                throw error("number expected");
+            }
+            if (c == '.') {
+                pos++;
+                if ((c = peek()) >= '5' && c <= '9') {
+                    value++;
+                }
+                while ((c = peek()) >= '0' && c <= '9') {
+                    pos++;
+                }
+            }
+            return negative ? -value : value;
+        }
+
+        int nextInt() throws IOException {
+            long value = nextLong();
+            if (value != (int) value) {
+                throw error("value " + value + " out of range");
+            }
+            return (int) value;
+        }
+
+        // Node id in [first, last], returned 0-based
+        int nextNode(int first, int last) throws IOException {
+            long id = nextLong();
+            if (id < first || id > last) {
+                throw error("node id " + id + " out of range");
+            }
+            return (int) (id - first);
+        }
+
+        int nextWeight() throws IOException {
+            int w = nextInt();
+            if (w < 0) {
+                throw error("negative weight " + w);
+            }
+            return w;
+        }
+
+        IOException error(String message) {
+            return new IOException(file.getFileName() + ":" + line + ": " + message);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+
+// Mutable directed graph for the editor. Every node keeps its out-edges in two
+// primitive arrays that double when full, and the per-node tables double as
+// nodes are added, so adding or removing the latest node or edge is O(1)
+// amortized and the node count is limited only by memory. A hash index of
+// (src, dest) pairs answers hasEdge and lightestWeight in O(1) whatever the
+// out-degree. The
+// in-edges are mirrored the same way, for engines that walk edges backwards.
+//
+// A store over a loaded CSR graph reads its rows from the CSR, and its in-edges
+// from the CSR's reverse, until a node is first edited. Only then are that
+// node's rows copied out and its pairs indexed, so loading allocates no
+// per-node arrays and an unedited store snapshots to the CSR itself.
+//
+// One thread edits and reads the store. The mutators and toCsr share its lock,
+// so that other threads can take snapshots while edits go on.
+public class GraphStore {
+    private static final int[] NO_EDGES = new int[0];
+
+    private final CsrGraph base;        // null, or the graph the store was loaded from
+    private final CsrGraph baseReverse;
+    private boolean edited;             // changed since base was loaded
+    private int nodeCount;
+    private int edgeCount;
+    private int[][] targets;            // null for a row still read from base
+    private int[][] weights;
+    private int[] degree;
+    private int[][] sources; // in-edges, in the order they were added; null while read from baseReverse
+    private int[][] inWeights;
+    private int[] inDegree;
+    private final LongIntHashMap pairs; // (src, dest) -> number of parallel edges, for copied-out rows
+    private final LongIntHashMap lightest; // (src, dest) -> lowest weight among them, same keys as pairs
+
+    public GraphStore() {
+        this(16);
+    }
+
+    public GraphStore(int capacity) {
+        this(capacity, capacity);
+    }
+
+    public GraphStore(int capacity, int edgeCapacity) {
+        capacity = Math.max(1, capacity);
+        base = null;
+        baseReverse = null;
+        pairs = new LongIntHashMap(edgeCapacity);
+        lightest = new LongIntHashMap(edgeCapacity);
+        targets = new int[capacity][];
+        weights = new int[capacity][];
+        degree = new int[capacity];
+        sources = new int[capacity][];
+        inWeights = new int[capacity][];
+        inDegree = new int[capacity];
+    }
+
+    public GraphStore(CsrGraph base) {
+        this.base = base;
+        baseReverse = base.reverse();
+        nodeCount = base.nodeCount();
+        edgeCount = base.edgeCount();
+        int capacity = Math.max(1, nodeCount);
+        pairs = new LongIntHashMap(16);
+        lightest = new LongIntHashMap(16);
+        targets = new int[capacity][];
+        weights = new int[capacity][];
+        degree = new int[capacity];
+        sources = new int[capacity][];
+        inWeights = new int[capacity][];
+        inDegree = new int[capacity];
+        for (int v = 0; v < nodeCount; v++) {
+            degree[v] = base.end(v) - base.begin(v);
+            inDegree[v] = baseReverse.end(v) - baseReverse.begin(v);
+        }
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    // Returns the id of the new node
+    public synchronized int addNode() {
+        if (nodeCount == degree.length) {
+            int capacity = nodeCount * 2;
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            degree = Arrays.copyOf(degree, capacity);
+            sources = Arrays.copyOf(sources, capacity);
+            inWeights = Arrays.copyOf(inWeights, capacity);
+            inDegree = Arrays.copyOf(inDegree, capacity);
+        }
+        targets[nodeCount] = NO_EDGES;
+        weights[nodeCount] = NO_EDGES;
+        degree[nodeCount] = 0;
+        sources[nodeCount] = NO_EDGES;
+        inWeights[nodeCount] = NO_EDGES;
+        inDegree[nodeCount] = 0;
+        edited = true;
+        return nodeCount++;
+    }
+
+    // Undo of the most recent addNode; the node must have no edges left
+    public synchronized void removeLastNode() {
+        int v = nodeCount - 1;
+        if (degree[v] != 0 || inDegree[v] != 0) {
+            throw new IllegalStateException("Node " + v + " still has edges");
+        }
+        targets[v] = null;
+        weights[v] = null;
+        sources[v] = null;
+        inWeights[v] = null;
+        nodeCount--;
+    }
+
+    public synchronized void addEdge(int src, int dest, int wt) {
+        checkNode(src);
+        checkNode(dest);
+        copyOut(src);
+        copyIn(dest);
+        int d = degree[src];
+        if (d == targets[src].length) {
+            int capacity = Math.max(2, d * 2);
+            targets[src] = Arrays.copyOf(targets[src], capacity);
+            weights[src] = Arrays.copyOf(weights[src], capacity);
+        }
+        targets[src][d] = dest;
+        weights[src][d] = wt;
+        degree[src] = d + 1;
+        int in = inDegree[dest];
+        if (in == sources[dest].length) {
+            int capacity = Math.max(2, in * 2);
+            sources[dest] = Arrays.copyOf(sources[dest], capacity);
+            inWeights[dest] = Arrays.copyOf(inWeights[dest], capacity);
+        }
+        sources[dest][in] = src;
+        inWeights[dest][in] = wt;
+        inDegree[dest] = in + 1;
+        edgeCount++;
+        index(src, dest, wt);
+        edited = true;
+    }
+
+    // Removes the most recently added matching edge; false if there is none.
+    // The search runs from the back, so undoing the latest edge is O(1).
+    public synchronized boolean removeEdge(int src, int dest, int wt) {
+        if (!hasEdge(src, dest)) {
+            return false;
+        }
+        copyOut(src);
+        copyIn(dest);
+        if (!removeLast(targets[src], weights[src], degree, src, dest, wt)) {
+            return false;
+        }
+        removeLast(sources[dest], inWeights[dest], inDegree, dest, src, wt);
+        edgeCount--;
+        long key = LongIntHashMap.pack(src, dest);
+        if (pairs.add(key, -1) == 0) {
+            lightest.remove(key);
+        } else if (lightest.get(key, -1) == wt) {
+            lightest.put(key, scanLightest(src, dest)); // the lightest went, a parallel edge may be heavier
+        }
+        edited = true;
+        return true;
+    }
+
+    // Count a copied-out edge in the pair index
+    private void index(int src, int dest, int wt) {
+        long key = LongIntHashMap.pack(src, dest);
+        pairs.add(key, 1);
+        int w = lightest.get(key, -1);
+        if (w == -1 || wt < w) {
+            lightest.put(key, wt);
+        }
+    }
+
+    // Drops the last (node, wt) entry of owner's list, keeping the others in order
+    private static boolean removeLast(int[] nodes, int[] w, int[] count, int owner, int node, int wt) {
+        for (int i = count[owner] - 1; i >= 0; i--) {
+            if (nodes[i] == node && w[i] == wt) {
+                System.arraycopy(nodes, i + 1, nodes, i, count[owner] - 1 - i);
+                System.arraycopy(w, i + 1, w, i, count[owner] - 1 - i);
+                count[owner]--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasEdge(int src, int dest) {
+        return edgeCount(src, dest) > 0;
+    }
+
+    // Number of parallel edges from src to dest. A row still in base is scanned,
+    // which at road-network degrees costs about as much as the hash probe.
+    public int edgeCount(int src, int dest) {
+        if (targets[src] != null) {
+            return pairs.get(LongIntHashMap.pack(src, dest), 0);
+        }
+        int count = 0;
+        for (int e = base.begin(src), end = base.end(src); e < end; e++) {
+            if (base.target(e) == dest) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Weight of the lightest edge from src to dest, the one a shortest path takes,
+    // or -1 if there is none. A row still in base is scanned as in edgeCount.
+    public int lightestWeight(int src, int dest) {
+        return targets[src] != null ? lightest.get(LongIntHashMap.pack(src, dest), -1) : scanLightest(src, dest);
+    }
+
+    private int scanLightest(int src, int dest) {
+        int best = -1;
+        for (int i = 0, d = degree[src]; i < d; i++) {
+            if (target(src, i) == dest && (best == -1 || weight(src, i) < best)) {
+                best = weight(src, i);
+            }
+        }
+        return best;
+    }
+
+    public int degree(int node) {
+        return degree[node];
+    }
+
+    // i-th out-edge of node, 0 <= i < degree(node)
+    public int target(int node, int i) {
+        int[] row = targets[node];
+        return row != null ? row[i] : base.target(base.begin(node) + i);
+    }
+
+    public int weight(int node, int i) {
+        int[] row = weights[node];
+        return row != null ? row[i] : base.weight(base.begin(node) + i);
+    }
+
+    public int inDegree(int node) {
+        return inDegree[node];
+    }
+
+    // i-th in-edge of node, 0 <= i < inDegree(node)
+    public int source(int node, int i) {
+        int[] row = sources[node];
+        return row != null ? row[i] : baseReverse.target(baseReverse.begin(node) + i);
+    }
+
+    public int inWeight(int node, int i) {
+        int[] row = inWeights[node];
+        return row != null ? row[i] : baseReverse.weight(baseReverse.begin(node) + i);
+    }
+
+    // Immutable snapshot for the CSR solvers
+    public synchronized CsrGraph toCsr() {
+        if (base != null && !edited) {
+            return base;
+        }
+        int n = nodeCount;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] csrTargets = new int[edgeCount];
+        int[] csrWeights = new int[edgeCount];
+        for (int v = 0; v < n; v++) {
+            if (targets[v] != null) {
+                System.arraycopy(targets[v], 0, csrTargets, offsets[v], degree[v]);
+                System.arraycopy(weights[v], 0, csrWeights, offsets[v], degree[v]);
+                continue;
+            }
+            for (int i = 0, e = base.begin(v); i < degree[v]; i++, e++) {
+                csrTargets[offsets[v] + i] = base.target(e);
+                csrWeights[offsets[v] + i] = base.weight(e);
+            }
+        }
+        return CsrGraph.of(offsets, csrTargets, csrWeights);
+    }
+
+    // Copy node's out-edges out of base before its first edit, indexing their pairs
+    private void copyOut(int node) {
+        if (targets[node] != null) {
+            return;
+        }
+        int begin = base.begin(node), d = degree[node];
+        int[] to = new int[Math.max(2, d)];
+        int[] w = new int[to.length];
+        for (int i = 0; i < d; i++) {
+            to[i] = base.target(begin + i);
+            w[i] = base.weight(begin + i);
+            index(node, to[i], w[i]);
+        }
+        targets[node] = to;
+        weights[node] = w;
+    }
+
+    private void copyIn(int node) {
+        if (sources[node] != null) {
+            return;
+        }
+        int begin = baseReverse.begin(node), d = inDegree[node];
+        int[] from = new int[Math.max(2, d)];
+        int[] w = new int[from.length];
+        for (int i = 0; i < d; i++) {
+            from[i] = baseReverse.target(begin + i);
+            w[i] = baseReverse.weight(begin + i);
+        }
+        sources[node] = from;
+        inWeights[node] = w;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("Node " + node + " does not exist");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+
+// d-ary min-heap over node ids with a position map for decrease-key.
+// Keys live next to the heap slots so sifting touches one array per level.
+class IndexedHeap implements NodeQueue {
+    private final int arity;
+    private final int[] heap;
+    private final int[] heapKeys;
+    private final int[] pos; // heap slot of each node, -1 when absent
+    private int size;
+
+    public IndexedHeap(int capacity) {
+        this(capacity, 2);
+    }
+
+    public IndexedHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.heapKeys = new int[capacity];
+        this.pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Largest node id + 1 the heap can hold
+    public int capacity() {
+        return pos.length;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return pos[node] != -1;
+    }
+
+    @Override
+    public void decreaseKey(int node, int key) {
+        int i = pos[node];
+        if (i == -1) {
+            i = size++;
+        } else if (key >= heapKeys[i]) {
+            return;
+        }
+        siftUp(i, node, key);
+    }
+
+    @Override
+    public int minKey() {
+        return heapKeys[0];
+    }
+
+    @Override
+    public int poll() {
+        int min = heap[0];
+        pos[min] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, heap[size], heapKeys[size]);
+        }
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i, int node, int key) {
+        while (i > 0) {
+            int p = (i - 1) / arity;
+            if (heapKeys[p] <= key) break;
+            move(heap[p], heapKeys[p], i);
+            i = p;
+        }
+        move(node, key, i);
+    }
+
+    private void siftDown(int i, int node, int key) {
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) break;
+            int last = Math.min(first + arity, size);
+            int best = first;
+            for (int c = first + 1; c < last; c++) {
+                if (heapKeys[c] < heapKeys[best]) best = c;
+            }
+            if (heapKeys[best] >= key) break;
+            move(heap[best], heapKeys[best], i);
+            i = best;
+        }
+        move(node, key, i);
+    }
+
+    private void move(int node, int key, int slot) {
+        heap[slot] = node;
+        heapKeys[slot] = key;
+        pos[node] = slot;
+    }
+}
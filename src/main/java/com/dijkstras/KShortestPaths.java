@@ -0,0 +1,306 @@
+package com.dijkstras;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BooleanSupplier;
+
+// The k shortest loopless paths from src to dest, by Yen's algorithm with
+// Lawler's refinement: each accepted path is only spurred from the node where
+// it left its parent path, since earlier prefixes were spurred already.
+//
+// All spur searches share one backward shortest-path tree from dest. Its
+// distances are an exact A* heuristic for every spur search, because removing
+// edges can only lengthen paths. When the tree path from the spur node avoids
+// the removed nodes and edges it is the answer outright, with no search at all.
+// The spur searches of one round run in parallel on a ForkJoinPool, each in
+// its worker thread's QueryWorkspace, and only the best
+// k - |found| candidates are kept. A cancellation flag is polled between
+// spur searches and inside them, so an interactive caller can stop a query.
+public class KShortestPaths {
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int SEQUENTIAL_SPURS = 4; // below this, a round runs on the calling thread
+
+    // Up to k paths in order of distance; empty when dest is unreachable
+    public static List<DijkstrasAlgorithm.Result> find(CsrGraph graph, int src, int dest, int k) {
+        return find(graph, graph.reverse(), src, dest, k, ForkJoinPool.commonPool());
+    }
+
+    // reverse must be graph.reverse(); callers running many queries keep it
+    public static List<DijkstrasAlgorithm.Result> find(CsrGraph graph, CsrGraph reverse, int src, int dest,
+                                                      int k, ForkJoinPool pool) {
+        return find(graph, reverse, src, dest, k, pool, () -> false);
+    }
+
+    // Null once cancelled returns true, which it may do from any pool thread
+    public static List<DijkstrasAlgorithm.Result> find(CsrGraph graph, CsrGraph reverse, int src, int dest,
+                                                      int k, ForkJoinPool pool, BooleanSupplier cancelled) {
+        List<DijkstrasAlgorithm.Result> results = new ArrayList<>();
+        if (k <= 0) {
+            return results;
+        }
+        int[] toDest = DijkstrasAlgorithm.distances(reverse, dest, cancelled);
+        if (toDest == null) {
+            return null;
+        }
+        if (toDest[src] == INF) {
+            return results;
+        }
+        ArrayList<Path> found = new ArrayList<>();
+        found.add(workspace(graph.nodeCount()).spur(graph, toDest, new int[] {src}, new int[] {0},
+                new int[0], 0, dest, cancelled));
+        TreeSet<Path> candidates = new TreeSet<>();
+
+        while (found.size() < k) {
+            if (cancelled.getAsBoolean()) {
+                return null; // spurs cut short would look like missing paths
+            }
+            Path last = found.get(found.size() - 1);
+            Path[] spurs = pool.invoke(new SpurTask(graph, toDest, found, last, dest,
+                    last.deviation, last.nodes.length - 1, cancelled));
+            for (Path p : spurs) {
+                if (p != null) {
+                    candidates.add(p);
+                }
+            }
+            // Only the best k - |found| candidates can still be chosen
+            while (candidates.size() > k - found.size()) {
+                candidates.pollLast();
+            }
+            Path next = candidates.pollFirst();
+            if (next == null) {
+                break;
+            }
+            found.add(next);
+        }
+        if (cancelled.getAsBoolean()) {
+            return null;
+        }
+
+        for (Path p : found) {
+            ArrayList<Integer> path = new ArrayList<>(p.nodes.length);
+            for (int v : p.nodes) {
+                path.add(v);
+            }
+            results.add(new DijkstrasAlgorithm.Result(p.cost(), path));
+        }
+        return results;
+    }
+
+    // Loopless path with the distance to each of its nodes
+    static final class Path implements Comparable<Path> {
+        final int[] nodes;
+        final int[] prefix;   // prefix[i] = distance from the source to nodes[i]
+        final int deviation;  // index where it leaves the path it was spurred from
+
+        Path(int[] nodes, int[] prefix, int deviation) {
+            this.nodes = nodes;
+            this.prefix = prefix;
+            this.deviation = deviation;
+        }
+
+        int cost() {
+            return prefix[prefix.length - 1];
+        }
+
+        // By cost, then node sequence, so equal paths found twice collapse
+        @Override
+        public int compareTo(Path o) {
+            int c = Integer.compare(cost(), o.cost());
+            if (c != 0) return c;
+            c = Integer.compare(nodes.length, o.nodes.length);
+            return c != 0 ? c : Arrays.compare(nodes, o.nodes);
+        }
+    }
+
+    // Spur searches for spur indices [from, to) of last, split in halves across the pool
+    @SuppressWarnings("serial")
+    private static class SpurTask extends RecursiveTask<Path[]> {
+        private final CsrGraph graph;
+        private final int[] toDest;
+        private final List<Path> found;
+        private final Path last;
+        private final int dest, from, to;
+        private final BooleanSupplier cancelled;
+
+        SpurTask(CsrGraph graph, int[] toDest, List<Path> found, Path last, int dest, int from, int to,
+                 BooleanSupplier cancelled) {
+            this.graph = graph;
+            this.toDest = toDest;
+            this.found = found;
+            this.last = last;
+            this.dest = dest;
+            this.from = from;
+            this.to = to;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Path[] compute() {
+            if (to - from <= SEQUENTIAL_SPURS) {
+                Path[] spurs = new Path[Math.max(0, to - from)];
+                for (int i = from; i < to && !cancelled.getAsBoolean(); i++) {
+                    spurs[i - from] = workspace(graph.nodeCount()).spur(graph, toDest,
+                            Arrays.copyOf(last.nodes, i + 1), Arrays.copyOf(last.prefix, i + 1),
+                            blockedNext(found, last, i), i, dest, cancelled);
+                }
+                return spurs;
+            }
+            int mid = (from + to) >>> 1;
+            SpurTask right = new SpurTask(graph, toDest, found, last, dest, mid, to, cancelled);
+            right.fork();
+            Path[] left = new SpurTask(graph, toDest, found, last, dest, from, mid, cancelled).compute();
+            Path[] rest = right.join();
+            Path[] spurs = Arrays.copyOf(left, left.length + rest.length);
+            System.arraycopy(rest, 0, spurs, left.length, rest.length);
+            return spurs;
+        }
+    }
+
+    // Next hops out of last.nodes[i] taken by found paths sharing last's root up to i
+    private static int[] blockedNext(List<Path> found, Path last, int i) {
+        int[] next = new int[found.size()];
+        int count = 0;
+        for (Path p : found) {
+            if (p.nodes.length > i + 1 && Arrays.equals(p.nodes, 0, i + 1, last.nodes, 0, i + 1)) {
+                next[count++] = p.nodes[i + 1];
+            }
+        }
+        return Arrays.copyOf(next, count);
+    }
+
+    private static Workspace workspace(int nodeCount) {
+        return new Workspace(QueryWorkspace.current(nodeCount));
+    }
+
+    // Spur searches in the calling thread's QueryWorkspace. dist and parent are
+    // valid where stamp matches the current search generation; the workspace's
+    // marks flag the root nodes of the current spur.
+    private static class Workspace {
+        final QueryWorkspace ws;
+        final int[] dist, parent, stamp;
+        final IndexedHeap heap;
+        int[] removed;
+        int removedMark;
+
+        Workspace(QueryWorkspace ws) {
+            this.ws = ws;
+            dist = ws.dist();
+            parent = ws.parent();
+            stamp = ws.stamps();
+            heap = ws.heap();
+        }
+
+        // root followed by the best path from its last node (the spur node) to dest
+        // that avoids the other root nodes and does not start with a blocked hop;
+        // null when there is none or the search was cancelled
+        Path spur(CsrGraph graph, int[] toDest, int[] root, int[] rootPrefix, int[] blocked,
+                  int deviation, int dest, BooleanSupplier cancelled) {
+            removedMark = ws.nextMarks();
+            removed = ws.marks();
+            for (int j = 0; j < root.length - 1; j++) {
+                removed[root[j]] = removedMark;
+            }
+            int spurNode = root[root.length - 1];
+            if (toDest[spurNode] == INF) {
+                return null;
+            }
+            if (!followTree(graph, toDest, spurNode, blocked, dest) && !search(graph, toDest, spurNode, blocked, dest, cancelled)) {
+                return null;
+            }
+
+            int length = 0;
+            for (int v = dest; v != -1; v = parent[v]) {
+                length++;
+            }
+            int[] nodes = Arrays.copyOf(root, root.length - 1 + length);
+            int[] prefix = Arrays.copyOf(rootPrefix, nodes.length);
+            int rootCost = rootPrefix[rootPrefix.length - 1];
+            for (int v = dest, j = nodes.length - 1; v != -1; v = parent[v], j--) {
+                nodes[j] = v;
+                prefix[j] = rootCost + dist[v];
+            }
+            return new Path(nodes, prefix, deviation);
+        }
+
+        private int start(int spurNode) {
+            int gen = ws.nextGeneration();
+            dist[spurNode] = 0;
+            parent[spurNode] = -1;
+            stamp[spurNode] = gen;
+            return gen;
+        }
+
+        // Usable hop from u to v: not a root node, can reach dest, and not blocked out of the spur node
+        private boolean allowed(int u, int v, int spurNode, int[] blocked, int[] toDest) {
+            if (removed[v] == removedMark || toDest[v] == INF) {
+                return false;
+            }
+            if (u == spurNode) {
+                for (int b : blocked) {
+                    if (b == v) return false;
+                }
+            }
+            return true;
+        }
+
+        // Walk tight edges of the backward tree (weight + toDest[v] == toDest[u]) from
+        // the spur node. Stamps keep zero-weight cycles from looping.
+        private boolean followTree(CsrGraph graph, int[] toDest, int spurNode, int[] blocked, int dest) {
+            int gen = start(spurNode);
+            for (int u = spurNode; u != dest; ) {
+                int next = -1;
+                for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                    int v = graph.target(e);
+                    if (stamp[v] != gen && allowed(u, v, spurNode, blocked, toDest)
+                            && graph.weight(e) + toDest[v] == toDest[u]) {
+                        next = v;
+                        dist[v] = dist[u] + graph.weight(e);
+                        parent[v] = u;
+                        stamp[v] = gen;
+                        break;
+                    }
+                }
+                if (next == -1) {
+                    return false;
+                }
+                u = next;
+            }
+            return true;
+        }
+
+        // A* from the spur node. toDest never overestimates once edges are removed,
+        // and stays consistent, so each node is settled once.
+        private boolean search(CsrGraph graph, int[] toDest, int spurNode, int[] blocked, int dest,
+                               BooleanSupplier cancelled) {
+            int gen = start(spurNode);
+            heap.clear(); // an early exit may have left nodes queued
+            heap.decreaseKey(spurNode, toDest[spurNode]);
+            int settled = 0;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                if (u == dest) {
+                    return true;
+                }
+                if (++settled % DijkstrasAlgorithm.CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                    return false;
+                }
+                int du = dist[u];
+                for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                    int v = graph.target(e);
+                    int nd = du + graph.weight(e);
+                    if ((stamp[v] != gen || nd < dist[v]) && allowed(u, v, spurNode, blocked, toDest)) {
+                        dist[v] = nd;
+                        parent[v] = u;
+                        stamp[v] = gen;
+                        heap.decreaseKey(v, nd + toDest[v]);
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
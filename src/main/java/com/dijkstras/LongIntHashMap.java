@@ -0,0 +1,144 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+
+// Open-addressing hash map from long to int with linear probing, for keys such
+// as packed (src, dest) pairs where a HashMap<Long, Integer> would box every
+// entry. Removal shifts later entries of the probe run back, so there are no
+// tombstones and lookups never slow down after many deletions.
+class LongIntHashMap {
+    private static final long EMPTY = Long.MIN_VALUE; // never a packed node pair
+    private static final int MAX_LOAD_PERCENT = 60;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    LongIntHashMap(int expected) {
+        allocate(tableSize(expected));
+    }
+
+    // Key for the pair (a, b); pairs of non-negative ints never collide with EMPTY
+    static long pack(int a, int b) {
+        return (long) a << 32 | (b & 0xffffffffL);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(long key) {
+        return keys[slot(key)] != EMPTY;
+    }
+
+    // Value stored for key, or missing when absent
+    int get(long key, int missing) {
+        int i = slot(key);
+        return keys[i] == EMPTY ? missing : values[i];
+    }
+
+    void put(long key, int value) {
+        checkKey(key);
+        int i = slot(key);
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        if (size * 100L > keys.length * (long) MAX_LOAD_PERCENT) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    // Adds delta to the value of key (absent counts as 0) and returns the sum; a sum of 0 removes key
+    int add(long key, int delta) {
+        int value = get(key, 0) + delta;
+        if (value == 0) {
+            remove(key);
+        } else {
+            put(key, value);
+        }
+        return value;
+    }
+
+    // Returns whether key was present
+    boolean remove(long key) {
+        int i = slot(key);
+        if (keys[i] == EMPTY) {
+            return false;
+        }
+        // Backward-shift: move later entries of the run into the gap when their home allows it
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int slot(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int j = slot(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int tableSize(int expected) {
+        long needed = Math.max(16, expected * 100L / MAX_LOAD_PERCENT + 1);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    // Murmur3 finalizer, so packed pairs that differ only in one half still spread
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.dijkstras;
+
+// Priority queue of node ids keyed by tentative distance. Each node is held at
+// most once, so relaxations lower its key in place instead of adding duplicates.
+interface NodeQueue {
+    boolean isEmpty();
+
+    int size();
+
+    // Insert node with the given key, or lower its key if it is already queued
+    void decreaseKey(int node, int key);
+
+    boolean contains(int node);
+
+    int minKey();
+
+    // Remove and return the node with the smallest key
+    int poll();
+
+    // Empty the queue without re-initialising per-node state for every node
+    void clear();
+}
@@ -0,0 +1,207 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+// Reusable state for point-to-point searches on a CsrGraph. dist and parent
+// are only valid for nodes whose stamp equals the current generation, so a new
+// query just bumps the generation instead of refilling O(V) arrays, and the
+// path is written into a reused int[] instead of boxed collections. After
+// warm-up a query touches only the nodes it visits and allocates nothing.
+//
+// The other per-thread searches (matrix rows, range queries, spur searches)
+// borrow the same arrays through nextGeneration(), nextMarks() and heap()
+// rather than keeping workspaces of their own.
+//
+// One workspace per thread (current()); a workspace must not be shared.
+class QueryWorkspace {
+    private static final ThreadLocal<QueryWorkspace> CURRENT = new ThreadLocal<>();
+
+    private int[] dist;
+    private int[] parent;
+    private int[] stamp;
+    private int generation;
+    private int[] marks; // second per-node stamp for callers, allocated on first use
+    private int markGeneration;
+    private final NodeQueue[] queues = new NodeQueue[DijkstrasAlgorithm.QueueType.values().length];
+    private int bucketMaxWeight = -1; // weight range the bucket queue was built for
+
+    private int[] path = new int[16];
+    private int pathLength;
+    private int distance;
+    private int settled;
+    private final SearchStats stats = new SearchStats();
+
+    private QueryWorkspace(int capacity) {
+        dist = new int[capacity];
+        parent = new int[capacity];
+        stamp = new int[capacity];
+    }
+
+    // The calling thread's workspace, grown to hold nodeCount nodes
+    static QueryWorkspace current(int nodeCount) {
+        QueryWorkspace ws = CURRENT.get();
+        if (ws == null || ws.dist.length < nodeCount) {
+            ws = new QueryWorkspace(nodeCount);
+            CURRENT.set(ws);
+        }
+        return ws;
+    }
+
+    // Dijkstra from src to dest; returns the distance, -1 when unreachable
+    int search(CsrGraph graph, int src, int dest, DijkstrasAlgorithm.QueueType queueType) {
+        return search(graph, src, dest, queue(graph, queueType), null);
+    }
+
+    // A* with a consistent heuristic
+    int search(CsrGraph graph, int src, int dest, IntUnaryOperator heuristic) {
+        return search(graph, src, dest, queue(graph, DijkstrasAlgorithm.QueueType.BINARY_HEAP), heuristic);
+    }
+
+    private int search(CsrGraph graph, int src, int dest, NodeQueue pq, IntUnaryOperator heuristic) {
+        int gen = nextGeneration();
+        long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int relaxed = 0, pushes = 1;
+        pq.clear(); // an early exit may have left nodes queued
+        dist[src] = 0;
+        parent[src] = -1;
+        stamp[src] = gen;
+        pq.decreaseKey(src, heuristic == null ? 0 : heuristic.applyAsInt(src));
+        settled = 0;
+
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            settled++;
+            if (u == dest) break;
+            int du = dist[u];
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int v = graph.target(e);
+                int nd = du + graph.weight(e);
+                if (SolverMetrics.ENABLED) relaxed++;
+                if (stamp[v] != gen || nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    stamp[v] = gen;
+                    pq.decreaseKey(v, heuristic == null ? nd : nd + heuristic.applyAsInt(v));
+                    if (SolverMetrics.ENABLED) pushes++;
+                }
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            stats.settled = settled;
+            stats.pops = settled; // an indexed queue never holds stale entries
+            stats.stalePops = 0;
+            stats.relaxed = relaxed;
+            stats.pushes = pushes;
+            stats.nanos = System.nanoTime() - start;
+            SolverMetrics.get().record(stats);
+        }
+
+        if (stamp[dest] != gen) {
+            pathLength = 0;
+            return distance = -1;
+        }
+        int length = 0;
+        for (int v = dest; v != -1; v = parent[v]) {
+            length++;
+        }
+        if (length > path.length) {
+            path = new int[Math.max(length, path.length * 2)];
+        }
+        int i = length;
+        for (int v = dest; v != -1; v = parent[v]) {
+            path[--i] = v;
+        }
+        pathLength = length;
+        return distance = dist[dest];
+    }
+
+    // Starts a search of the caller's own: from now on dist() and parent() are
+    // valid exactly where stamps() holds the returned generation
+    int nextGeneration() {
+        if (++generation == 0) { // wrapped around, old stamps could look current
+            Arrays.fill(stamp, 0);
+            generation = 1;
+        }
+        return generation;
+    }
+
+    // Unmarks every node: marked ones are those where marks() holds the returned value
+    int nextMarks() {
+        if (marks == null) {
+            marks = new int[dist.length];
+        }
+        if (++markGeneration == 0) {
+            Arrays.fill(marks, 0);
+            markGeneration = 1;
+        }
+        return markGeneration;
+    }
+
+    int[] dist() {
+        return dist;
+    }
+
+    int[] parent() {
+        return parent;
+    }
+
+    int[] stamps() {
+        return stamp;
+    }
+
+    int[] marks() {
+        return marks;
+    }
+
+    // The binary heap over every node; an early exit may leave nodes queued
+    IndexedHeap heap() {
+        int i = DijkstrasAlgorithm.QueueType.BINARY_HEAP.ordinal();
+        if (queues[i] == null) {
+            queues[i] = new IndexedHeap(dist.length, 2);
+        }
+        return (IndexedHeap) queues[i];
+    }
+
+    private NodeQueue queue(CsrGraph graph, DijkstrasAlgorithm.QueueType type) {
+        NodeQueue pq = queues[type.ordinal()];
+        boolean stale = type == DijkstrasAlgorithm.QueueType.BUCKET && graph.maxWeight() > bucketMaxWeight;
+        if (pq == null || stale) {
+            pq = type.create(dist.length, graph.maxWeight());
+            queues[type.ordinal()] = pq;
+            if (type == DijkstrasAlgorithm.QueueType.BUCKET) {
+                bucketMaxWeight = graph.maxWeight();
+            }
+        }
+        return pq;
+    }
+
+    // Results of the last search
+
+    int distance() {
+        return distance;
+    }
+
+    int settled() {
+        return settled;
+    }
+
+    // Counters of the last search, only meaningful while SolverMetrics.ENABLED
+    SearchStats stats() {
+        return stats;
+    }
+
+    int pathLength() {
+        return pathLength;
+    }
+
+    // i-th node of the path, src first
+    int pathNode(int i) {
+        return path[i];
+    }
+
+    // Fresh copy of the path, empty when dest was unreachable
+    int[] path() {
+        return Arrays.copyOf(path, pathLength);
+    }
+}
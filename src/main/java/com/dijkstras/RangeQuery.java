@@ -0,0 +1,141 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+// Isochrones: every node within a distance budget of a source. The search
+// never queues a node beyond the budget, so it settles only the reachable
+// region and stops when that is exhausted instead of building the whole tree.
+// Batches of sources are spread over a ForkJoinPool, and each search runs in
+// the worker thread's QueryWorkspace, as in DistanceMatrix.
+public class RangeQuery {
+    // Reached nodes in order of distance, with distances[i] the distance to nodes[i]
+    public static final class Result {
+        public final int source;
+        public final int budget;
+        public final int[] nodes;
+        public final int[] distances;
+
+        Result(int source, int budget, int[] nodes, int[] distances) {
+            this.source = source;
+            this.budget = budget;
+            this.nodes = nodes;
+            this.distances = distances;
+        }
+
+        public int size() {
+            return nodes.length;
+        }
+    }
+
+    public static Result run(CsrGraph graph, int src, int budget) {
+        return run(graph, src, budget, () -> false);
+    }
+
+    // Null once cancelled returns true; it is polled every few hundred settled nodes
+    public static Result run(CsrGraph graph, int src, int budget, BooleanSupplier cancelled) {
+        return search(QueryWorkspace.current(graph.nodeCount()), graph, src, budget, cancelled);
+    }
+
+    // One result per source, in the order of sources
+    public static Result[] run(CsrGraph graph, int[] sources, int budget) {
+        return run(graph, sources, budget, ForkJoinPool.commonPool());
+    }
+
+    public static Result[] run(CsrGraph graph, int[] sources, int budget, ForkJoinPool pool) {
+        Result[] results = new Result[sources.length];
+        if (sources.length > 0) {
+            pool.invoke(new RangeTask(graph, sources, budget, results, 0, sources.length));
+        }
+        return results;
+    }
+
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final int[] sources;
+        private final int budget;
+        private final Result[] results;
+        private final int from, to;
+
+        RangeTask(CsrGraph graph, int[] sources, int budget, Result[] results, int from, int to) {
+            this.graph = graph;
+            this.sources = sources;
+            this.budget = budget;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = run(graph, sources[from], budget);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(graph, sources, budget, results, from, mid),
+                      new RangeTask(graph, sources, budget, results, mid, to));
+        }
+    }
+
+    // The search stamps the nodes it reaches in the workspace, so nothing is
+    // cleared between runs. Parent links are not needed, so the parent array
+    // holds the nodes in the order they are settled.
+    private static Result search(QueryWorkspace ws, CsrGraph graph, int src, int budget,
+                                 BooleanSupplier cancelled) {
+        if (budget < 0) {
+            return new Result(src, budget, new int[0], new int[0]);
+        }
+        int gen = ws.nextGeneration();
+        int[] dist = ws.dist(), stamps = ws.stamps(), reached = ws.parent();
+        IndexedHeap pq = ws.heap();
+        SearchStats stats = SolverMetrics.ENABLED ? new SearchStats() : null;
+        long start = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        if (SolverMetrics.ENABLED) stats.pushes = 1; // the source
+        pq.clear();
+        dist[src] = 0;
+        stamps[src] = gen;
+        pq.decreaseKey(src, 0);
+        int count = 0;
+
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            if (count % DijkstrasAlgorithm.CHECK_INTERVAL == 0 && count > 0 && cancelled.getAsBoolean()) {
+                return null;
+            }
+            int du = dist[u];
+            reached[count++] = u;
+            int slack = budget - du; // du <= budget, so this cannot overflow
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int w = graph.weight(e);
+                if (SolverMetrics.ENABLED) stats.relaxed++;
+                if (w > slack) {
+                    continue; // beyond the budget, never queued
+                }
+                int v = graph.target(e);
+                int nd = du + w;
+                if (stamps[v] != gen || nd < dist[v]) {
+                    dist[v] = nd;
+                    stamps[v] = gen;
+                    pq.decreaseKey(v, nd);
+                    if (SolverMetrics.ENABLED) stats.pushes++;
+                }
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            stats.settled = count;
+            stats.pops = count;
+            stats.nanos = System.nanoTime() - start;
+            SolverMetrics.get().record(stats);
+        }
+        int[] nodes = Arrays.copyOf(reached, count);
+        int[] distances = new int[count];
+        for (int i = 0; i < count; i++) {
+            distances[i] = dist[nodes[i]];
+        }
+        return new Result(src, budget, nodes, distances);
+    }
+}
@@ -0,0 +1,183 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+
+// Answers "is there certainly no path from src to dest?" in O(1), so a search
+// that would explore the whole component of src before giving up is never
+// started. Two tests are combined:
+//
+//   - union-find over the edges as undirected: different weak components
+//     cannot reach each other. Kept current as nodes and edges are added.
+//   - the strongly connected components, numbered in topological order of the
+//     condensation (rank). Every edge goes to an equal or higher rank, so no
+//     path leads from a higher rank to a lower one.
+//
+// An added edge that goes against the ranks may close a cycle, so it leaves
+// only the ranks stale; removals leave everything stale. Stale parts reject
+// nothing, so a query never waits for a rebuild; the owner replaces a stale
+// index with a fresh one from of(), built in one O(V + E) pass off the query
+// thread.
+class ReachabilityIndex {
+    private int[] parent = new int[16]; // union-find forest of the weak components
+    private int[] size = new int[16];
+    private int[] rank = new int[16];   // topological position of the node's strong component
+    private int nodeCount;
+    private int maxRank = -1;
+    private boolean componentsStale, ranksStale;
+
+    // Stale throughout, so it rejects nothing until replaced
+    ReachabilityIndex() {
+        componentsStale = ranksStale = true;
+    }
+
+    // Built at once. Queries only read it, so it can be shared between threads
+    // as long as no node or edge is added to it.
+    static ReachabilityIndex of(CsrGraph graph) {
+        ReachabilityIndex index = new ReachabilityIndex();
+        index.rebuild(graph);
+        return index;
+    }
+
+    // True only when no path from src to dest can exist
+    boolean unreachable(int src, int dest) {
+        if (src == dest || componentsStale) {
+            return false;
+        }
+        if (find(src) != find(dest)) {
+            return true;
+        }
+        return !ranksStale && rank[src] > rank[dest];
+    }
+
+    // True when some queries would be answered by a rebuilt index and not this one
+    boolean isStale() {
+        return componentsStale || ranksStale;
+    }
+
+    // A node with no edges yet: a component of its own, placed after all others
+    void addNode() {
+        if (componentsStale) {
+            return; // the replacement reads the graph
+        }
+        if (nodeCount == parent.length) {
+            parent = Arrays.copyOf(parent, nodeCount * 2);
+            size = Arrays.copyOf(size, nodeCount * 2);
+            rank = Arrays.copyOf(rank, nodeCount * 2);
+        }
+        parent[nodeCount] = nodeCount;
+        size[nodeCount] = 1;
+        rank[nodeCount] = ++maxRank;
+        nodeCount++;
+    }
+
+    void addEdge(int src, int dest) {
+        if (componentsStale) {
+            return;
+        }
+        union(src, dest);
+        if (rank[src] > rank[dest]) {
+            ranksStale = true; // dest may now reach src, merging components
+        }
+    }
+
+    // After removals, undo or a swapped graph; nothing is recomputed here
+    void invalidate() {
+        componentsStale = ranksStale = true;
+    }
+
+    private int find(int v) {
+        while (parent[v] != v) {
+            int p = parent[v], grandparent = parent[p];
+            if (grandparent != p) {
+                parent[v] = grandparent; // path halving, no write once the tree is flat
+            }
+            v = p;
+        }
+        return v;
+    }
+
+    private void union(int a, int b) {
+        a = find(a);
+        b = find(b);
+        if (a == b) {
+            return;
+        }
+        if (size[a] < size[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+    }
+
+    // Union-find and Tarjan's algorithm in one pass over the edges. The search is
+    // iterative, with an explicit call stack, so long chains cannot overflow.
+    private void rebuild(CsrGraph graph) {
+        int n = graph.nodeCount();
+        nodeCount = n;
+        if (parent.length < n) {
+            int capacity = Math.max(n, parent.length * 2);
+            parent = new int[capacity];
+            size = new int[capacity];
+            rank = new int[capacity];
+        }
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+            rank[v] = -1; // not yet assigned to a strong component
+        }
+        int[] order = new int[n];  // discovery number + 1, 0 while unvisited
+        int[] low = new int[n];
+        int[] stack = new int[n];  // Tarjan's stack of nodes without a component
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int counter = 0, top = 0, components = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (order[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = graph.begin(root);
+            order[root] = low[root] = ++counter;
+            stack[top++] = root;
+            while (depth >= 0) {
+                int u = callNode[depth];
+                if (callEdge[depth] < graph.end(u)) {
+                    int v = graph.target(callEdge[depth]++);
+                    union(u, v);
+                    if (order[v] == 0) {
+                        order[v] = low[v] = ++counter;
+                        stack[top++] = v;
+                        callNode[++depth] = v;
+                        callEdge[depth] = graph.begin(v);
+                    } else if (rank[v] == -1) { // still on the stack
+                        low[u] = Math.min(low[u], order[v]);
+                    }
+                    continue;
+                }
+                if (low[u] == order[u]) {
+                    int w;
+                    do {
+                        w = stack[--top];
+                        rank[w] = components;
+                    } while (w != u);
+                    components++;
+                }
+                if (--depth >= 0) {
+                    int caller = callNode[depth];
+                    low[caller] = Math.min(low[caller], low[u]);
+                }
+            }
+        }
+        // Tarjan completes sink components first; reverse so edges go up in rank
+        for (int v = 0; v < n; v++) {
+            rank[v] = components - 1 - rank[v];
+            parent[v] = find(v); // flat, so later finds only read
+        }
+        maxRank = components - 1;
+        componentsStale = ranksStale = false;
+    }
+}
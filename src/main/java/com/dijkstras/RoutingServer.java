@@ -0,0 +1,359 @@
+package com.dijkstras;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+// Headless HTTP front end for a loaded, read-only graph:
+//
+//     GET  /route?src=&dst=                  one shortest path
+//     POST /route                            batch, body holds one "src dst" pair per line
+//     GET  /matrix?sources=1,2&targets=3,4   travel-time matrix, -1 where unreachable
+//     GET  /isochrone?src=&limit=            nodes within limit of src, with their distances
+//     GET  /isochrone?sources=1,2&limit=     one isochrone per source, searched in parallel
+//
+// Connections are served by one virtual thread each when the JDK has them
+// (21+), otherwise by a cached pool. Searches themselves run on a fixed pool of
+// platform threads so their per-thread query workspaces are reused. At most
+// maxInFlight requests are admitted at once; the rest get 503 right away
+// instead of queueing without bound.
+public class RoutingServer {
+    private static final int MAX_BATCH = 10_000;
+
+    private final CsrGraph graph;
+    private final ReachabilityIndex reachability;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ForkJoinPool searchPool;
+    private final Semaphore inFlight;
+
+    public RoutingServer(CsrGraph graph, InetSocketAddress address, int maxInFlight) throws IOException {
+        this.graph = graph;
+        this.reachability = ReachabilityIndex.of(graph);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.searchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        this.requestExecutor = requestExecutor();
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/route", exchange -> handle(exchange, this::route));
+        server.createContext("/matrix", exchange -> handle(exchange, this::matrix));
+        server.createContext("/isochrone", exchange -> handle(exchange, this::isochrone));
+        server.setExecutor(requestExecutor);
+    }
+
+    // Virtual thread per request on JDK 21+, found reflectively so the code
+    // still compiles and runs on 17
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "route-request");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdownNow();
+        searchPool.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private interface Endpoint {
+        String respond(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            if (!inFlight.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, error("server busy"));
+                return;
+            }
+            try {
+                send(exchange, 200, endpoint.respond(exchange, query(exchange.getRequestURI())));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (IOException | RuntimeException e) {
+                send(exchange, 500, error(String.valueOf(e.getMessage())));
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    private String route(HttpExchange exchange, Map<String, String> params) throws IOException {
+        if ("POST".equals(exchange.getRequestMethod())) {
+            int[][] pairs = parsePairs(readBody(exchange));
+            return search(() -> {
+                StringBuilder json = new StringBuilder("{\"routes\":[");
+                for (int i = 0; i < pairs.length; i++) {
+                    if (i > 0) json.append(',');
+                    appendRoute(json, pairs[i][0], pairs[i][1]);
+                }
+                return json.append("]}").toString();
+            });
+        }
+        int src = node(params, "src");
+        int dst = node(params, "dst");
+        return search(() -> appendRoute(new StringBuilder(), src, dst).toString());
+    }
+
+    private StringBuilder appendRoute(StringBuilder json, int src, int dst) {
+        json.append("{\"src\":").append(src).append(",\"dst\":").append(dst);
+        if (reachability.unreachable(src, dst)) {
+            return json.append(",\"distance\":-1,\"settled\":0,\"path\":[]}");
+        }
+        QueryWorkspace ws = QueryWorkspace.current(graph.nodeCount());
+        ws.search(graph, src, dst, DijkstrasAlgorithm.QueueType.BINARY_HEAP);
+        json
+            .append(",\"distance\":").append(ws.distance())
+            .append(",\"settled\":").append(ws.settled()).append(",\"path\":[");
+        for (int i = 0; i < ws.pathLength(); i++) {
+            if (i > 0) json.append(',');
+            json.append(ws.pathNode(i));
+        }
+        return json.append("]}");
+    }
+
+    private String matrix(HttpExchange exchange, Map<String, String> params) throws IOException {
+        int[] sources = nodes(params, "sources");
+        int[] targets = nodes(params, "targets");
+        if ((long) sources.length * targets.length > MAX_BATCH * 100L) {
+            throw new IllegalArgumentException("matrix too large");
+        }
+        return search(() -> {
+            int[] matrix = DistanceMatrix.compute(graph, sources, targets, searchPool, reachability);
+            StringBuilder json = new StringBuilder("{\"matrix\":[");
+            for (int i = 0; i < sources.length; i++) {
+                json.append(i > 0 ? ",[" : "[");
+                for (int j = 0; j < targets.length; j++) {
+                    if (j > 0) json.append(',');
+                    json.append(matrix[i * targets.length + j]);
+                }
+                json.append(']');
+            }
+            return json.append("]}").toString();
+        });
+    }
+
+    private String isochrone(HttpExchange exchange, Map<String, String> params) throws IOException {
+        int limit = number(params, "limit");
+        if (params.containsKey("sources")) {
+            int[] sources = nodes(params, "sources");
+            if (sources.length > MAX_BATCH) {
+                throw new IllegalArgumentException("at most " + MAX_BATCH + " sources per batch");
+            }
+            return search(() -> {
+                RangeQuery.Result[] results = RangeQuery.run(graph, sources, limit, searchPool);
+                StringBuilder json = new StringBuilder("{\"isochrones\":[");
+                for (int i = 0; i < results.length; i++) {
+                    if (i > 0) json.append(',');
+                    appendIsochrone(json, results[i]);
+                }
+                return json.append("]}").toString();
+            });
+        }
+        int src = node(params, "src");
+        return search(() -> appendIsochrone(new StringBuilder(), RangeQuery.run(graph, src, limit)).toString());
+    }
+
+    // Nodes in id order, each with its distance at the same position of "distances"
+    private static StringBuilder appendIsochrone(StringBuilder json, RangeQuery.Result result) {
+        long[] reached = new long[result.size()];
+        for (int i = 0; i < reached.length; i++) {
+            reached[i] = (long) result.nodes[i] << 32 | result.distances[i];
+        }
+        Arrays.sort(reached);
+        json.append("{\"src\":").append(result.source)
+            .append(",\"limit\":").append(result.budget).append(",\"nodes\":[");
+        for (int i = 0; i < reached.length; i++) {
+            if (i > 0) json.append(',');
+            json.append((int) (reached[i] >>> 32));
+        }
+        json.append("],\"distances\":[");
+        for (int i = 0; i < reached.length; i++) {
+            if (i > 0) json.append(',');
+            json.append((int) reached[i]);
+        }
+        return json.append("]}");
+    }
+
+    // Run on the search pool and wait; the request thread only does I/O. Bad
+    // input that only shows inside the search still answers 400, not 500.
+    private String search(Callable<String> task) throws IOException {
+        try {
+            return searchPool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause.getCause() != null && cause.getCause().getClass() == cause.getClass()) {
+                cause = cause.getCause(); // the pool rethrows a copy that wraps the task's own
+            }
+            if (cause instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) cause;
+            }
+            if (cause instanceof IndexOutOfBoundsException) {
+                throw new IllegalArgumentException(String.valueOf(cause.getMessage()), cause);
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private int[][] parsePairs(String body) {
+        String[] lines = body.trim().split("\\R");
+        if (lines.length > MAX_BATCH) {
+            throw new IllegalArgumentException("at most " + MAX_BATCH + " pairs per batch");
+        }
+        int[][] pairs = new int[lines.length][];
+        int count = 0;
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            String[] parts = line.trim().split("[\\s,]+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected \"src dst\", got \"" + line + "\"");
+            }
+            pairs[count++] = new int[] {checkNode(parts[0]), checkNode(parts[1])};
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    private int node(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing parameter " + name);
+        }
+        return checkNode(value);
+    }
+
+    private int[] nodes(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("missing parameter " + name);
+        }
+        String[] parts = value.split(",");
+        if (parts.length == 0) {
+            throw new IllegalArgumentException("no node ids in " + name); // only commas, as in "sources=,"
+        }
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = checkNode(parts[i]);
+        }
+        return ids;
+    }
+
+    private static int number(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing parameter " + name);
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad number " + value);
+        }
+    }
+
+    private int checkNode(String value) {
+        int v;
+        try {
+            v = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad node id " + value);
+        }
+        if (v < 0 || v >= graph.nodeCount()) {
+            throw new IllegalArgumentException("node " + v + " out of range");
+        }
+        return v;
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                           URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Graph files written by GraphFile are mapped; .gr and edge lists are imported
+    static CsrGraph load(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".gr") || name.endsWith(".csv") || name.endsWith(".txt")) {
+            return GraphImporter.read(file).graph;
+        }
+        return GraphFile.open(file).graph();
+    }
+
+    // Usage: RoutingServer <graph file> [port] [max in-flight requests]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: RoutingServer <graph file> [port] [max in-flight requests]");
+            System.exit(2);
+        }
+        // Solver counters are readable over JMX when started with -Ddijkstras.metrics=true
+        SolverMetrics.registerMBean();
+        CsrGraph graph = load(Paths.get(args[0]));
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int maxInFlight = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        RoutingServer server = new RoutingServer(graph, new InetSocketAddress(port), maxInFlight);
+        server.start();
+        System.out.println("Serving " + graph.nodeCount() + " nodes, " + graph.edgeCount()
+                + " edges on port " + server.port());
+    }
+}
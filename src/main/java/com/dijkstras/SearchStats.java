@@ -0,0 +1,33 @@
+package com.dijkstras;
+
+// Work done by one search, filled in only while SolverMetrics.ENABLED is set
+class SearchStats {
+    int settled;     // nodes finalised
+    int relaxed;     // edges examined
+    int pushes;      // queue inserts and decrease-keys
+    int pops;        // queue removals, stale ones included
+    int stalePops;   // removals of outdated entries (lazy-deletion queues only)
+    long nanos;      // wall time
+
+    void reset() {
+        settled = relaxed = pushes = pops = stalePops = 0;
+        nanos = 0;
+    }
+
+    SearchStats copy() {
+        SearchStats copy = new SearchStats();
+        copy.settled = settled;
+        copy.relaxed = relaxed;
+        copy.pushes = pushes;
+        copy.pops = pops;
+        copy.stalePops = stalePops;
+        copy.nanos = nanos;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("settled=%d relaxed=%d pushes=%d pops=%d stale=%d time=%dus",
+                settled, relaxed, pushes, pops, stalePops, nanos / 1000);
+    }
+}
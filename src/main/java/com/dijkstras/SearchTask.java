@@ -0,0 +1,133 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+// Single-source Dijkstra meant for a background thread. It builds the full
+// tree, so the result can be handed to DynamicShortestPaths like a watched
+// source, polls a cancellation flag while it runs, and about once per frame
+// reports the nodes settled since its previous report. Given a target and a
+// consistent heuristic it runs as A* instead and stops once the target is
+// settled; only the target's parent chain is final then.
+class SearchTask {
+    static final long PROGRESS_NANOS = 16_000_000; // one frame at 60 fps
+    private static final int CHECK_INTERVAL = 256;  // settled nodes between flag and clock checks
+
+    interface Listener {
+        // settled holds the nodes finalised since the last call, in settling order
+        void progress(int[] settled, int settledTotal, int frontier);
+    }
+
+    private final CsrGraph graph;
+    private final int source;
+    private final int target; // -1 for the full tree
+    private final IntUnaryOperator heuristic;
+    private volatile boolean cancelled;
+    private int[] dist;
+    private int[] parent;
+
+    SearchTask(CsrGraph graph, int source) {
+        this(graph, source, -1, v -> 0);
+    }
+
+    SearchTask(CsrGraph graph, int source, int target, IntUnaryOperator heuristic) {
+        this.graph = graph;
+        this.source = source;
+        this.target = target;
+        this.heuristic = heuristic;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    int source() {
+        return source;
+    }
+
+    // False for an A* search, whose tree is only partial
+    boolean isFullTree() {
+        return target == -1;
+    }
+
+    // Integer.MAX_VALUE where unreached; null until run() has finished
+    int[] dist() {
+        return dist;
+    }
+
+    // -1 for the source and unreachable nodes; null until run() has finished
+    int[] parent() {
+        return parent;
+    }
+
+    // Returns false when cancelled before the tree was complete
+    boolean run(Listener listener) {
+        int n = graph.nodeCount();
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        dist[source] = 0;
+
+        SearchStats stats = SolverMetrics.ENABLED ? new SearchStats() : null;
+        if (SolverMetrics.ENABLED) stats.pushes = 1; // the source
+        long start = System.nanoTime();
+        long lastReport = start;
+        int[] batch = new int[1024];
+        int batchSize = 0;
+        int settled = 0;
+
+        IndexedHeap pq = new IndexedHeap(n);
+        pq.decreaseKey(source, heuristic.applyAsInt(source));
+        while (!pq.isEmpty()) {
+            int u = pq.poll();
+            settled++;
+            if (batchSize == batch.length) {
+                batch = Arrays.copyOf(batch, batchSize * 2);
+            }
+            batch[batchSize++] = u;
+            if (u == target) {
+                break;
+            }
+            int du = dist[u];
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                int v = graph.target(e);
+                int nd = du + graph.weight(e);
+                if (SolverMetrics.ENABLED) stats.relaxed++;
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    parent[v] = u;
+                    pq.decreaseKey(v, nd + heuristic.applyAsInt(v));
+                    if (SolverMetrics.ENABLED) stats.pushes++;
+                }
+            }
+            if (settled % CHECK_INTERVAL == 0) {
+                if (cancelled) {
+                    return false;
+                }
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_NANOS) {
+                    listener.progress(Arrays.copyOf(batch, batchSize), settled, pq.size());
+                    batchSize = 0;
+                    lastReport = now;
+                }
+            }
+        }
+        if (batchSize > 0) {
+            listener.progress(Arrays.copyOf(batch, batchSize), settled, pq.size());
+        }
+        if (SolverMetrics.ENABLED) {
+            stats.settled = settled;
+            stats.pops = settled;
+            stats.nanos = System.nanoTime() - start;
+            SolverMetrics.get().record(stats);
+        }
+        this.dist = dist;
+        this.parent = parent;
+        return !cancelled;
+    }
+}
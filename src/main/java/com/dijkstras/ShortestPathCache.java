@@ -0,0 +1,103 @@
+package com.dijkstras;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+// LRU cache of shortest-path trees keyed by source. Each tree remembers the graph
+// version it was computed for; a lookup with any other version drops the entry,
+// so a tree is never served after the graph changed unless revalidate() vouched
+// for it. The eviction listener hears about every source that leaves the cache.
+class ShortestPathCache {
+    private final int capacity;
+    private final IntConsumer evictionListener;
+    private final LinkedHashMap<Integer, Entry> entries;
+    private long hits;
+    private long misses;
+
+    private static class Entry {
+        final ShortestPathTree tree;
+        final long version;
+
+        Entry(ShortestPathTree tree, long version) {
+            this.tree = tree;
+            this.version = version;
+        }
+    }
+
+    ShortestPathCache(int capacity) {
+        this(capacity, source -> { });
+    }
+
+    ShortestPathCache(int capacity, IntConsumer evictionListener) {
+        this.capacity = capacity;
+        this.evictionListener = evictionListener;
+        // Access order makes the eldest entry the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() <= ShortestPathCache.this.capacity) {
+                    return false;
+                }
+                evictionListener.accept(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    synchronized ShortestPathTree get(int source, long version) {
+        Entry entry = entries.get(source);
+        if (entry != null && entry.version == version) {
+            hits++;
+            return entry.tree;
+        }
+        if (entry != null) {
+            entries.remove(source);
+            evictionListener.accept(source);
+        }
+        misses++;
+        return null;
+    }
+
+    synchronized void put(ShortestPathTree tree, long version) {
+        entries.put(tree.source, new Entry(tree, version));
+    }
+
+    // Re-stamp every entry with version using the tree that current returns for
+    // its source, which must be correct for that version. Sources it returns null
+    // for are dropped.
+    synchronized void revalidate(long version, IntFunction<ShortestPathTree> current) {
+        Iterator<Map.Entry<Integer, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Entry> entry = it.next();
+            ShortestPathTree tree = current.apply(entry.getKey());
+            if (tree == null) {
+                it.remove();
+                evictionListener.accept(entry.getKey());
+            } else {
+                entry.setValue(new Entry(tree, version));
+            }
+        }
+    }
+
+    synchronized void clear() {
+        for (int source : entries.keySet()) {
+            evictionListener.accept(source);
+        }
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+}
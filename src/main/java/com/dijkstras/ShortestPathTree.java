@@ -0,0 +1,19 @@
+package com.dijkstras;
+
+// Complete single-source result: distance and parent of every node. Paths to any
+// destination are read off in time proportional to their length.
+class ShortestPathTree {
+    final int source;
+    final int[] dist;   // Integer.MAX_VALUE where unreachable
+    final int[] parent; // -1 for the source and unreachable nodes
+
+    ShortestPathTree(int source, int[] dist, int[] parent) {
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+    }
+
+    DijkstrasAlgorithm.Result pathTo(int dest) {
+        return DijkstrasAlgorithm.buildResult(dist, parent, dest, 0);
+    }
+}
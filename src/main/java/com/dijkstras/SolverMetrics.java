@@ -0,0 +1,136 @@
+package com.dijkstras;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Process-wide solver counters and a latency histogram. Instrumentation is off
+// unless the JVM is started with -Ddijkstras.metrics=true. ENABLED is a static
+// final constant read once from the command line, so no code path can flip it
+// after a solver has loaded, and when it is off the JIT removes every
+// instrumented branch and the solvers run exactly as before.
+public class SolverMetrics implements SolverMetricsMBean {
+    static final boolean ENABLED = Boolean.getBoolean("dijkstras.metrics");
+
+    private static final SolverMetrics INSTANCE = new SolverMetrics();
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder relaxed = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder pops = new LongAdder();
+    private final LongAdder stalePops = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile SearchStats last;
+
+    private SolverMetrics() {
+    }
+
+    public static SolverMetrics get() {
+        return INSTANCE;
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    // Expose the counters over JMX; safe to call more than once
+    public static void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.dijkstras:type=SolverMetrics");
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register solver metrics", e);
+        }
+    }
+
+    void record(SearchStats stats) {
+        searches.increment();
+        settled.add(stats.settled);
+        relaxed.add(stats.relaxed);
+        pushes.add(stats.pushes);
+        pops.add(stats.pops);
+        stalePops.add(stats.stalePops);
+        nanos.add(stats.nanos);
+        latency.record(stats.nanos);
+        last = stats.copy();
+    }
+
+    // Most recent search, or null
+    SearchStats last() {
+        return last;
+    }
+
+    @Override
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    @Override
+    public long getNodesSettled() {
+        return settled.sum();
+    }
+
+    @Override
+    public long getEdgesRelaxed() {
+        return relaxed.sum();
+    }
+
+    @Override
+    public long getQueuePushes() {
+        return pushes.sum();
+    }
+
+    @Override
+    public long getQueuePops() {
+        return pops.sum();
+    }
+
+    @Override
+    public long getStalePops() {
+        return stalePops.sum();
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        long count = searches.sum();
+        return count == 0 ? 0 : nanos.sum() / 1000.0 / count;
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+        return latency.percentile(50) / 1000;
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        return latency.percentile(99) / 1000;
+    }
+
+    @Override
+    public long getLatencyP999Micros() {
+        return latency.percentile(99.9) / 1000;
+    }
+
+    @Override
+    public long getLatencyMaxMicros() {
+        return latency.max() / 1000;
+    }
+
+    @Override
+    public void reset() {
+        searches.reset();
+        settled.reset();
+        relaxed.reset();
+        pushes.reset();
+        pops.reset();
+        stalePops.reset();
+        nanos.reset();
+        latency.reset();
+        last = null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dijkstras;
+
+// JMX view of SolverMetrics, registered as com.dijkstras:type=SolverMetrics
+public interface SolverMetricsMBean {
+    long getSearches();
+
+    long getNodesSettled();
+
+    long getEdgesRelaxed();
+
+    long getQueuePushes();
+
+    long getQueuePops();
+
+    long getStalePops();
+
+    double getMeanLatencyMicros();
+
+    long getLatencyP50Micros();
+
+    long getLatencyP99Micros();
+
+    long getLatencyP999Micros();
+
+    long getLatencyMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,287 @@
+package com.dijkstras;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// Uniform grid over node positions and edge bounding boxes, for drawing only
+// what is on screen and for picking the node under the mouse. Ids follow the
+// editor: nodes and edges are numbered in insertion order and only the latest
+// one is ever removed, so every removal pops the end of its cell lists. The
+// editor keeps no other copy of the positions and endpoints.
+class SpatialIndex {
+    static final int CELL_SIZE = 64;
+    // Edges covering more cells than this are kept on one list that every query scans
+    private static final int MAX_EDGE_CELLS = 64;
+
+    private final HashMap<Long, Cell> cells = new HashMap<>();
+    private final IntList longEdges = new IntList();
+
+    private int[] x = new int[16];
+    private int[] y = new int[16];
+    private int nodeCount;
+
+    private int[] src = new int[16];
+    private int[] dest = new int[16];
+    private int edgeCount;
+
+    // Per-edge query stamp, so an edge spanning several cells is reported once
+    private int[] seen = new int[16];
+    private int stamp;
+
+    // Extent of the cells ever used, which bounds the nearest-node search
+    private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE;
+    private int minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE;
+
+    static class Cell {
+        final IntList nodes = new IntList();
+        final IntList edges = new IntList();
+    }
+
+    static class IntList {
+        int[] items = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+
+        // Only the most recently added id is ever removed
+        void removeLast(int value) {
+            if (size == 0 || items[size - 1] != value) {
+                throw new IllegalStateException("Id " + value + " is not the latest entry");
+            }
+            size--;
+        }
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    int edgeCount() {
+        return edgeCount;
+    }
+
+    // Position of a node, as given to addNode
+    int x(int node) {
+        return x[node];
+    }
+
+    int y(int node) {
+        return y[node];
+    }
+
+    // Endpoints of an edge, as given to addEdge
+    int source(int edge) {
+        return src[edge];
+    }
+
+    int target(int edge) {
+        return dest[edge];
+    }
+
+    // Returns the id of the new node
+    int addNode(int px, int py) {
+        if (nodeCount == x.length) {
+            x = Arrays.copyOf(x, nodeCount * 2);
+            y = Arrays.copyOf(y, nodeCount * 2);
+        }
+        x[nodeCount] = px;
+        y[nodeCount] = py;
+        int cx = cell(px), cy = cell(py);
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+        cells.computeIfAbsent(key(cx, cy), k -> new Cell()).nodes.add(nodeCount);
+        return nodeCount++;
+    }
+
+    void removeLastNode() {
+        int v = --nodeCount;
+        cells.get(key(cell(x[v]), cell(y[v]))).nodes.removeLast(v);
+    }
+
+    // Returns the id of the new edge; both endpoints must already be indexed
+    int addEdge(int from, int to) {
+        if (edgeCount == src.length) {
+            src = Arrays.copyOf(src, edgeCount * 2);
+            dest = Arrays.copyOf(dest, edgeCount * 2);
+            seen = Arrays.copyOf(seen, edgeCount * 2);
+        }
+        int e = edgeCount++;
+        src[e] = from;
+        dest[e] = to;
+        seen[e] = 0;
+        int x0 = cell(minX(e)), x1 = cell(maxX(e)), y0 = cell(minY(e)), y1 = cell(maxY(e));
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_EDGE_CELLS) {
+            longEdges.add(e);
+            return e;
+        }
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                cells.computeIfAbsent(key(cx, cy), k -> new Cell()).edges.add(e);
+            }
+        }
+        return e;
+    }
+
+    void removeLastEdge() {
+        int e = --edgeCount;
+        int x0 = cell(minX(e)), x1 = cell(maxX(e)), y0 = cell(minY(e)), y1 = cell(maxY(e));
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_EDGE_CELLS) {
+            longEdges.removeLast(e);
+            return;
+        }
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                cells.get(key(cx, cy)).edges.removeLast(e);
+            }
+        }
+    }
+
+    // Calls action for every node inside the rectangle, bounds inclusive
+    void nodesIn(int left, int top, int right, int bottom, IntConsumer action) {
+        forCells(left, top, right, bottom, c -> {
+            IntList list = c.nodes;
+            for (int i = 0; i < list.size; i++) {
+                int v = list.items[i];
+                if (x[v] >= left && x[v] <= right && y[v] >= top && y[v] <= bottom) {
+                    action.accept(v);
+                }
+            }
+        });
+    }
+
+    // Calls action once for every edge whose bounding box meets the rectangle
+    void edgesIn(int left, int top, int right, int bottom, IntConsumer action) {
+        if (++stamp == 0) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        Consumer<IntList> visit = list -> {
+            for (int i = 0; i < list.size; i++) {
+                int e = list.items[i];
+                if (seen[e] != stamp && minX(e) <= right && maxX(e) >= left
+                        && minY(e) <= bottom && maxY(e) >= top) {
+                    seen[e] = stamp;
+                    action.accept(e);
+                }
+            }
+        };
+        forCells(left, top, right, bottom, c -> visit.accept(c.edges));
+        visit.accept(longEdges);
+    }
+
+    // Nearest node within maxDistance of (px, py), or -1. Searches rings of cells
+    // outwards from the query point and stops once no closer node can exist.
+    int nearestNode(int px, int py, int maxDistance) {
+        int cx = cell(px), cy = cell(py);
+        int best = -1;
+        long bestDist = (long) maxDistance * maxDistance;
+        for (int r = 0; ; r++) {
+            long ringDist = (long) Math.max(0, r - 1) * CELL_SIZE;
+            if (ringDist * ringDist > bestDist) {
+                break;
+            }
+            int covered = r - 1; // rings up to r - 1 have been searched
+            if (covered >= 0 && cx - covered <= minCellX && cx + covered >= maxCellX
+                    && cy - covered <= minCellY && cy + covered >= maxCellY) {
+                break;
+            }
+            for (int i = cx - r; i <= cx + r; i++) {
+                best = nearestInCell(i, cy - r, px, py, best);
+                if (r > 0) {
+                    best = nearestInCell(i, cy + r, px, py, best);
+                }
+            }
+            for (int j = cy - r + 1; j <= cy + r - 1; j++) {
+                best = nearestInCell(cx - r, j, px, py, best);
+                best = nearestInCell(cx + r, j, px, py, best);
+            }
+            if (best != -1) {
+                bestDist = Math.min(bestDist, distance(best, px, py));
+            }
+        }
+        return best != -1 && distance(best, px, py) <= (long) maxDistance * maxDistance ? best : -1;
+    }
+
+    // Closer of best and the nodes in cell (cx, cy); ties go to the lower id
+    private int nearestInCell(int cx, int cy, int px, int py, int best) {
+        Cell c = cells.get(key(cx, cy));
+        if (c == null) {
+            return best;
+        }
+        for (int k = 0; k < c.nodes.size; k++) {
+            int v = c.nodes.items[k];
+            if (best == -1) {
+                best = v;
+                continue;
+            }
+            long d = distance(v, px, py), bestDist = distance(best, px, py);
+            if (d < bestDist || (d == bestDist && v < best)) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private long distance(int v, int px, int py) {
+        long dx = x[v] - px, dy = y[v] - py;
+        return dx * dx + dy * dy;
+    }
+
+    // Visits the non-empty cells meeting the rectangle. When the rectangle spans
+    // more cells than exist, walking the map is cheaper than probing each one.
+    private void forCells(int left, int top, int right, int bottom, Consumer<Cell> action) {
+        int x0 = cell(left), x1 = cell(right), y0 = cell(top), y1 = cell(bottom);
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > cells.size()) {
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                long k = entry.getKey();
+                int i = (int) (k >> 32), j = (int) k;
+                if (i >= x0 && i <= x1 && j >= y0 && j <= y1) {
+                    action.accept(entry.getValue());
+                }
+            }
+            return;
+        }
+        for (int i = x0; i <= x1; i++) {
+            for (int j = y0; j <= y1; j++) {
+                Cell c = cells.get(key(i, j));
+                if (c != null) {
+                    action.accept(c);
+                }
+            }
+        }
+    }
+
+    private int minX(int e) {
+        return Math.min(x[src[e]], x[dest[e]]);
+    }
+
+    private int maxX(int e) {
+        return Math.max(x[src[e]], x[dest[e]]);
+    }
+
+    private int minY(int e) {
+        return Math.min(y[src[e]], y[dest[e]]);
+    }
+
+    private int maxY(int e) {
+        return Math.max(y[src[e]], y[dest[e]]);
+    }
+
+    private static int cell(int coordinate) {
+        return Math.floorDiv(coordinate, CELL_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,91 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AltIndexTest {
+    private static final int INF = Integer.MAX_VALUE;
+
+    @Test
+    void queriesMatchDijkstra() {
+        Random random = new Random(9);
+        for (int g = 0; g < 15; g++) {
+            int n = 2 + random.nextInt(500);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(4)), 100);
+            AltIndex alt = AltIndex.build(graph, graph.reverse(), 1 + random.nextInt(8));
+            for (int q = 0; q < 20; q++) {
+                int src = random.nextInt(n), dest = random.nextInt(n);
+                TestGraphs.assertShortestPath(graph, src, dest, TestGraphs.distance(graph, src, dest),
+                        alt.query(graph, src, dest));
+            }
+        }
+    }
+
+    @Test
+    void planarLandmarksMatchDijkstra() {
+        Random random = new Random(10);
+        double[] x = new double[2000], y = new double[2000];
+        CsrGraph graph = TestGraphs.geometric(random, 2000, 2, x, y);
+        AltIndex alt = AltIndex.buildPlanar(graph, graph.reverse(), x, y, 8);
+        for (int q = 0; q < 50; q++) {
+            int src = random.nextInt(2000), dest = random.nextInt(2000);
+            TestGraphs.assertShortestPath(graph, src, dest, TestGraphs.distance(graph, src, dest),
+                    alt.query(graph, src, dest));
+        }
+    }
+
+    // After every refresh the bounds equal those of landmark distances computed afresh
+    @Test
+    void edgeAddedKeepsBoundsExact() {
+        Random random = new Random(11);
+        for (int g = 0; g < 10; g++) {
+            int n = 50 + random.nextInt(300);
+            GraphStore store = new GraphStore(TestGraphs.random(random, n, 2 * n, 100));
+            CsrGraph initial = store.toCsr();
+            AltIndex alt = AltIndex.build(initial, initial.reverse(), 4);
+            for (int step = 0; step < 40; step++) {
+                if (random.nextInt(5) == 0) {
+                    store.addNode();
+                    alt.ensureCapacity(store.nodeCount());
+                }
+                int src = random.nextInt(store.nodeCount()), dest = random.nextInt(store.nodeCount());
+                int wt = random.nextInt(50);
+                store.addEdge(src, dest, wt);
+                alt.edgeAdded(store, src, dest, wt);
+            }
+            CsrGraph graph = store.toCsr();
+            CsrGraph reverse = graph.reverse();
+            int[] landmarks = alt.landmarks();
+            int[][] from = new int[landmarks.length][], to = new int[landmarks.length][];
+            for (int i = 0; i < landmarks.length; i++) {
+                from[i] = DijkstrasAlgorithm.distances(graph, landmarks[i]);
+                to[i] = DijkstrasAlgorithm.distances(reverse, landmarks[i]);
+            }
+            for (int q = 0; q < 30; q++) {
+                int dest = random.nextInt(graph.nodeCount());
+                for (int v = 0; v < graph.nodeCount(); v++) {
+                    assertEquals(bound(from, to, v, dest), alt.lowerBound(v, dest), "bound " + v + " -> " + dest);
+                }
+                int src = random.nextInt(graph.nodeCount());
+                TestGraphs.assertShortestPath(graph, src, dest, TestGraphs.distance(graph, src, dest),
+                        alt.query(graph, src, dest));
+            }
+        }
+    }
+
+    private static int bound(int[][] from, int[][] to, int v, int dest) {
+        int best = 0;
+        for (int i = 0; i < from.length; i++) {
+            if (to[i][v] != INF && to[i][dest] != INF) {
+                best = Math.max(best, to[i][v] - to[i][dest]);
+            }
+            if (from[i][v] != INF && from[i][dest] != INF) {
+                best = Math.max(best, from[i][dest] - from[i][v]);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContractionHierarchyTest {
+    @Test
+    void matchesDijkstra() {
+        Random random = new Random(7);
+        for (int g = 0; g < 20; g++) {
+            int n = 2 + random.nextInt(120);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(4)), 100);
+            check(graph, ContractionHierarchy.build(graph), random);
+        }
+        double[] x = new double[2000], y = new double[2000];
+        CsrGraph graph = TestGraphs.geometric(random, 2000, 2, x, y);
+        check(graph, ContractionHierarchy.build(graph), random);
+    }
+
+    @Test
+    void answersTheSameAfterSaveAndLoad(@TempDir Path dir) throws IOException {
+        Random random = new Random(8);
+        CsrGraph graph = TestGraphs.random(random, 300, 900, 100);
+        ContractionHierarchy built = ContractionHierarchy.build(graph);
+        Path file = dir.resolve("graph.ch");
+        built.save(file);
+        ContractionHierarchy loaded = ContractionHierarchy.load(file);
+        assertEquals(built.nodeCount(), loaded.nodeCount());
+        assertEquals(built.shortcutCount(), loaded.shortcutCount());
+        check(graph, loaded, random);
+    }
+
+    private static void check(CsrGraph graph, ContractionHierarchy ch, Random random) {
+        for (int q = 0; q < 30; q++) {
+            int src = random.nextInt(graph.nodeCount()), dest = random.nextInt(graph.nodeCount());
+            int expected = TestGraphs.distance(graph, src, dest);
+            TestGraphs.assertShortestPath(graph, src, dest, expected, ch.query(src, dest));
+            assertEquals(expected, ch.distance(src, dest));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+class DeltaSteppingTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        // At least two workers, so the parallel relaxation runs even on one core
+        pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesDijkstraOnSmallGraphs() {
+        Random random = new Random(1);
+        for (int g = 0; g < 30; g++) {
+            int n = 2 + random.nextInt(200);
+            check(TestGraphs.random(random, n, n * (1 + random.nextInt(5)), random.nextBoolean() ? 10 : 10_000),
+                    random, 20);
+        }
+    }
+
+    // Big enough that frontiers are split across the pool
+    @Test
+    void matchesDijkstraOnLargeGraphs() {
+        Random random = new Random(2);
+        for (int g = 0; g < 3; g++) {
+            int n = 20_000;
+            check(TestGraphs.random(random, n, 4 * n, 1000), random, 10);
+        }
+        double[] x = new double[20_000], y = new double[20_000];
+        check(TestGraphs.geometric(random, 20_000, 3, x, y), random, 10);
+    }
+
+    private static void check(CsrGraph graph, Random random, int queries) {
+        int maxWeight = Math.max(1, graph.maxWeight());
+        int[] deltas = {1, Math.max(1, maxWeight / 10), DeltaStepping.defaultDelta(graph), maxWeight, 4 * maxWeight};
+        for (int q = 0; q < queries; q++) {
+            int src = random.nextInt(graph.nodeCount());
+            int dest = random.nextInt(graph.nodeCount());
+            int expected = TestGraphs.distance(graph, src, dest);
+            for (int delta : deltas) {
+                TestGraphs.assertShortestPath(graph, src, dest, expected,
+                        DeltaStepping.shortestPath(graph, src, dest, delta, pool));
+            }
+        }
+    }
+}
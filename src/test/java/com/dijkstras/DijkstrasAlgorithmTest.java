@@ -0,0 +1,68 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The point-to-point variants against plain single-source distances
+class DijkstrasAlgorithmTest {
+    @Test
+    void queueTypesAgree() {
+        Random random = new Random(3);
+        for (int g = 0; g < 30; g++) {
+            int n = 2 + random.nextInt(300);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(4)), random.nextBoolean() ? 10 : 1000);
+            for (int q = 0; q < 20; q++) {
+                int src = random.nextInt(n), dest = random.nextInt(n);
+                int expected = TestGraphs.distance(graph, src, dest);
+                for (DijkstrasAlgorithm.QueueType type : DijkstrasAlgorithm.QueueType.values()) {
+                    TestGraphs.assertShortestPath(graph, src, dest, expected,
+                            DijkstrasAlgorithm.dijkstraWithPath(graph, src, dest, type));
+                }
+            }
+        }
+    }
+
+    @Test
+    void bidirectionalMatches() {
+        Random random = new Random(4);
+        for (int g = 0; g < 30; g++) {
+            int n = 2 + random.nextInt(300);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(4)), 100);
+            CsrGraph reverse = graph.reverse();
+            for (int q = 0; q < 20; q++) {
+                int src = random.nextInt(n), dest = random.nextInt(n);
+                TestGraphs.assertShortestPath(graph, src, dest, TestGraphs.distance(graph, src, dest),
+                        DijkstrasAlgorithm.bidirectionalDijkstra(graph, reverse, src, dest));
+            }
+        }
+    }
+
+    @Test
+    void aStarOverCoordinatesMatches() {
+        Random random = new Random(5);
+        for (int g = 0; g < 10; g++) {
+            int n = 50 + random.nextInt(2000);
+            double[] x = new double[n], y = new double[n];
+            CsrGraph graph = TestGraphs.geometric(random, n, 2, x, y);
+            for (int q = 0; q < 20; q++) {
+                int src = random.nextInt(n), dest = random.nextInt(n);
+                int expected = TestGraphs.distance(graph, src, dest);
+                TestGraphs.assertShortestPath(graph, src, dest, expected,
+                        DijkstrasAlgorithm.aStar(graph, x, y, src, dest));
+                TestGraphs.assertShortestPath(graph, src, dest, expected,
+                        DijkstrasAlgorithm.aStar(graph, src, dest, v -> 0));
+            }
+        }
+    }
+
+    @Test
+    void cancelledDistancesReturnNull() {
+        CsrGraph graph = TestGraphs.random(new Random(6), 10_000, 40_000, 10);
+        assertNull(DijkstrasAlgorithm.distances(graph, 0, () -> true));
+        assertArrayEquals(DijkstrasAlgorithm.distances(graph, 0), DijkstrasAlgorithm.distances(graph, 0, () -> false));
+    }
+}
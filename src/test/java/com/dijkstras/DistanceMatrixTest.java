@@ -0,0 +1,54 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DistanceMatrixTest {
+    @Test
+    void matchesSingleSourceDistances() {
+        Random random = new Random(20);
+        for (int g = 0; g < 20; g++) {
+            int n = 2 + random.nextInt(400);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(3)), 100);
+            ReachabilityIndex reachability = random.nextBoolean() ? ReachabilityIndex.of(graph) : null;
+            int[] sources = random.ints(1 + random.nextInt(20), 0, n).toArray();
+            int[] targets = random.ints(1 + random.nextInt(20), 0, n).toArray(); // repeats included
+            int[] matrix = reachability == null ? DistanceMatrix.compute(graph, sources, targets)
+                    : DistanceMatrix.compute(graph, sources, targets, java.util.concurrent.ForkJoinPool.commonPool(), reachability);
+            for (int i = 0; i < sources.length; i++) {
+                for (int j = 0; j < targets.length; j++) {
+                    assertEquals(TestGraphs.distance(graph, sources[i], targets[j]), matrix[i * targets.length + j],
+                            sources[i] + " -> " + targets[j]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptySourcesGiveAnEmptyMatrix() {
+        CsrGraph graph = TestGraphs.random(new Random(21), 10, 20, 5);
+        assertEquals(0, DistanceMatrix.compute(graph, new int[0], new int[] {1, 2}).length);
+    }
+
+    // The solvers share one workspace per thread; a query in between must not disturb a row
+    @Test
+    void rowsAfterOtherQueriesOnTheSameThread() {
+        Random random = new Random(22);
+        CsrGraph graph = TestGraphs.random(random, 300, 1200, 50);
+        int[] targets = random.ints(30, 0, 300).toArray();
+        int[] row = new int[targets.length];
+        for (int q = 0; q < 50; q++) {
+            int src = random.nextInt(300);
+            RangeQuery.run(graph, random.nextInt(300), 100);
+            DijkstrasAlgorithm.dijkstraWithPath(graph, random.nextInt(300), random.nextInt(300));
+            KShortestPaths.find(graph, random.nextInt(300), random.nextInt(300), 3);
+            DistanceMatrix.computeRow(graph, src, targets, row, 0);
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(TestGraphs.distance(graph, src, targets[j]), row[j]);
+            }
+        }
+    }
+}
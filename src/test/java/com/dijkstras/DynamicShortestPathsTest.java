@@ -0,0 +1,91 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Repaired trees against trees computed from scratch after every edit
+class DynamicShortestPathsTest {
+    private static final int INF = Integer.MAX_VALUE;
+
+    @Test
+    void repairedTreesMatchFreshSearches() {
+        Random random = new Random(15);
+        for (int g = 0; g < 20; g++) {
+            GraphStore store = new GraphStore();
+            DynamicShortestPaths paths = new DynamicShortestPaths(store);
+            ArrayList<int[]> added = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                store.addNode();
+                paths.addNode();
+            }
+            int[] sources = {0, 1, 2};
+            for (int s : sources) {
+                paths.watch(s);
+            }
+            for (int step = 0; step < 300; step++) {
+                int n = store.nodeCount();
+                int op = random.nextInt(10);
+                if (op == 0) {
+                    store.addNode();
+                    paths.addNode();
+                } else if (op < 6 || added.isEmpty()) {
+                    int u = random.nextInt(n), v = random.nextInt(n), w = random.nextInt(20);
+                    store.addEdge(u, v, w);
+                    paths.insertEdge(u, v, w);
+                    added.add(new int[] {u, v, w});
+                } else {
+                    int[] e = added.remove(random.nextInt(added.size()));
+                    store.removeEdge(e[0], e[1], e[2]);
+                    paths.deleteEdge(e[0], e[1], e[2]);
+                }
+                check(store, paths, sources);
+            }
+        }
+    }
+
+    // A tree computed elsewhere is repaired like a watched one
+    @Test
+    void adoptedTreeIsRepaired() {
+        Random random = new Random(16);
+        CsrGraph base = TestGraphs.random(random, 200, 600, 50);
+        GraphStore store = new GraphStore(base);
+        DynamicShortestPaths paths = new DynamicShortestPaths(store);
+        SearchTask task = new SearchTask(base, 7);
+        task.run((settled, total, frontier) -> { });
+        paths.adopt(7, task.dist(), task.parent());
+        for (int step = 0; step < 100; step++) {
+            int u = random.nextInt(200), v = random.nextInt(200), w = random.nextInt(50);
+            store.addEdge(u, v, w);
+            paths.insertEdge(u, v, w);
+            if (step % 3 == 0) {
+                store.removeEdge(u, v, w);
+                paths.deleteEdge(u, v, w);
+            }
+            check(store, paths, new int[] {7});
+        }
+    }
+
+    private static void check(GraphStore store, DynamicShortestPaths paths, int[] sources) {
+        CsrGraph graph = store.toCsr();
+        for (int s : sources) {
+            int[] expected = DijkstrasAlgorithm.distances(graph, s);
+            ShortestPathTree tree = paths.tree(s);
+            for (int v = 0; v < graph.nodeCount(); v++) {
+                assertEquals(expected[v], tree.dist[v], "distance " + s + " -> " + v);
+                int parent = tree.parent[v];
+                if (v != s && expected[v] != INF) {
+                    // The parent edge must be tight: dist[parent] + w == dist[v] for some edge
+                    boolean tight = false;
+                    for (int e = graph.begin(parent); e < graph.end(parent); e++) {
+                        tight |= graph.target(e) == v && expected[parent] + graph.weight(e) == expected[v];
+                    }
+                    assertEquals(true, tight, "parent of " + v + " in the tree of " + s);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphFileTest {
+    private static final int HEADER_BYTES = 32;
+
+    @Test
+    void readsBackWhatWasSaved(@TempDir Path dir) throws IOException {
+        CsrGraph graph = TestGraphs.random(new Random(3), 50, 200, 100);
+        Path file = dir.resolve("graph.djkg");
+        GraphFile.save(file, graph, null, null);
+        CsrGraph loaded = GraphFile.open(file).graph();
+        assertEquals(graph.nodeCount(), loaded.nodeCount());
+        assertEquals(graph.edgeCount(), loaded.edgeCount());
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(graph.begin(v), loaded.begin(v));
+            assertEquals(graph.end(v), loaded.end(v));
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            assertEquals(graph.target(e), loaded.target(e));
+            assertEquals(graph.weight(e), loaded.weight(e));
+        }
+    }
+
+    @Test
+    void rejectsDecreasingOffsets(@TempDir Path dir) throws IOException {
+        Path file = save(dir);
+        overwrite(file, HEADER_BYTES + 4 * 5, 1_000);
+        assertRejected(file);
+    }
+
+    @Test
+    void rejectsTargetsOutsideTheGraph(@TempDir Path dir) throws IOException {
+        Path file = save(dir);
+        int targets = HEADER_BYTES + 4 * 11;
+        overwrite(file, targets + 4 * 7, 10);
+        assertRejected(file);
+        overwrite(file, targets + 4 * 7, -1);
+        assertRejected(file);
+    }
+
+    // Ten nodes, forty edges, no coordinates
+    private static Path save(Path dir) throws IOException {
+        Path file = dir.resolve("graph.djkg");
+        GraphFile.save(file, TestGraphs.random(new Random(4), 10, 40, 100), null, null);
+        return file;
+    }
+
+    private static void overwrite(Path file, long pos, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, value), pos);
+        }
+    }
+
+    private static void assertRejected(Path file) {
+        IOException e = assertThrows(IOException.class, () -> GraphFile.open(file));
+        assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+    }
+}
@@ -0,0 +1,140 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Random edits against lists of {node, weight} per node, in insertion order
+class GraphStoreTest {
+    @Test
+    void editsMatchModel() {
+        Random random = new Random(13);
+        for (int g = 0; g < 30; g++) {
+            run(new GraphStore(1 + random.nextInt(4)), new ArrayList<>(), new ArrayList<>(), random);
+        }
+    }
+
+    // A store over a loaded graph reads unedited rows from it; the result must not differ
+    @Test
+    void loadedStoreEditsMatchModel() {
+        Random random = new Random(14);
+        for (int g = 0; g < 30; g++) {
+            int n = 1 + random.nextInt(40);
+            CsrGraph base = TestGraphs.random(random, n, random.nextInt(4 * n), 20);
+            GraphStore store = new GraphStore(base);
+            assertSame(base, store.toCsr()); // unedited
+            run(store, rows(base), rows(base.reverse()), random);
+        }
+    }
+
+    private static List<List<int[]>> rows(CsrGraph graph) {
+        List<List<int[]>> rows = new ArrayList<>();
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            List<int[]> row = new ArrayList<>();
+            for (int e = graph.begin(v); e < graph.end(v); e++) {
+                row.add(new int[] {graph.target(e), graph.weight(e)});
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static void run(GraphStore store, List<List<int[]>> out, List<List<int[]>> in, Random random) {
+        for (int step = 0; step < 400; step++) {
+            int n = out.size();
+            int op = random.nextInt(10);
+            if (n == 0 || op == 0) {
+                assertEquals(n, store.addNode());
+                out.add(new ArrayList<>());
+                in.add(new ArrayList<>());
+            } else if (op == 1) {
+                int v = n - 1;
+                if (out.get(v).isEmpty() && in.get(v).isEmpty()) {
+                    store.removeLastNode();
+                    out.remove(v);
+                    in.remove(v);
+                }
+            } else if (op < 7) {
+                int src = random.nextInt(n), dest = random.nextInt(n), wt = random.nextInt(5);
+                store.addEdge(src, dest, wt);
+                out.get(src).add(new int[] {dest, wt});
+                in.get(dest).add(new int[] {src, wt});
+            } else {
+                int src = random.nextInt(n), dest = random.nextInt(n), wt = random.nextInt(5);
+                boolean removed = removeLast(out.get(src), dest, wt);
+                if (removed) {
+                    removeLast(in.get(dest), src, wt);
+                }
+                assertEquals(removed, store.removeEdge(src, dest, wt));
+            }
+            check(store, out, in, random);
+        }
+    }
+
+    private static boolean removeLast(List<int[]> row, int node, int wt) {
+        for (int i = row.size() - 1; i >= 0; i--) {
+            if (row.get(i)[0] == node && row.get(i)[1] == wt) {
+                row.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void check(GraphStore store, List<List<int[]>> out, List<List<int[]>> in, Random random) {
+        int n = out.size();
+        assertEquals(n, store.nodeCount());
+        int edges = 0;
+        for (int v = 0; v < n; v++) {
+            List<int[]> row = out.get(v);
+            edges += row.size();
+            assertEquals(row.size(), store.degree(v));
+            for (int i = 0; i < row.size(); i++) {
+                assertEquals(row.get(i)[0], store.target(v, i));
+                assertEquals(row.get(i)[1], store.weight(v, i));
+            }
+            List<int[]> inRow = in.get(v);
+            assertEquals(inRow.size(), store.inDegree(v));
+            for (int i = 0; i < inRow.size(); i++) {
+                assertEquals(inRow.get(i)[0], store.source(v, i));
+                assertEquals(inRow.get(i)[1], store.inWeight(v, i));
+            }
+        }
+        assertEquals(edges, store.edgeCount());
+        if (n > 0) {
+            int src = random.nextInt(n), dest = random.nextInt(n);
+            int parallel = (int) out.get(src).stream().filter(e -> e[0] == dest).count();
+            assertEquals(parallel, store.edgeCount(src, dest));
+            assertEquals(parallel > 0, store.hasEdge(src, dest));
+            int lightest = out.get(src).stream().filter(e -> e[0] == dest).mapToInt(e -> e[1]).min().orElse(-1);
+            assertEquals(lightest, store.lightestWeight(src, dest));
+        }
+        CsrGraph csr = store.toCsr();
+        assertEquals(n, csr.nodeCount());
+        for (int v = 0; v < n; v++) {
+            List<int[]> row = out.get(v);
+            assertEquals(row.size(), csr.end(v) - csr.begin(v));
+            for (int i = 0; i < row.size(); i++) {
+                assertEquals(row.get(i)[0], csr.target(csr.begin(v) + i));
+                assertEquals(row.get(i)[1], csr.weight(csr.begin(v) + i));
+            }
+        }
+    }
+
+    @Test
+    void removingAMissingEdgeChangesNothing() {
+        GraphStore store = new GraphStore();
+        store.addNode();
+        store.addNode();
+        store.addEdge(0, 1, 3);
+        assertFalse(store.removeEdge(0, 1, 4));
+        assertFalse(store.removeEdge(1, 0, 3));
+        assertEquals(1, store.edgeCount());
+    }
+}
@@ -0,0 +1,77 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Against every loopless path, enumerated on graphs small enough to list them all
+class KShortestPathsTest {
+    @Test
+    void matchesEnumeratedPaths() {
+        Random random = new Random(17);
+        for (int g = 0; g < 60; g++) {
+            int n = 2 + random.nextInt(7);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(3)), 10);
+            for (int q = 0; q < 5; q++) {
+                int src = random.nextInt(n), dest = random.nextInt(n);
+                int k = 1 + random.nextInt(8);
+                List<Long> costs = allCosts(graph, src, dest);
+                List<DijkstrasAlgorithm.Result> found = KShortestPaths.find(graph, src, dest, k);
+                assertEquals(Math.min(k, costs.size()), found.size(), "paths " + src + " -> " + dest);
+                HashSet<List<Integer>> distinct = new HashSet<>();
+                for (int i = 0; i < found.size(); i++) {
+                    DijkstrasAlgorithm.Result path = found.get(i);
+                    assertEquals((long) costs.get(i), path.distance, "cost of path " + i);
+                    assertEquals(src, (int) path.path.get(0));
+                    assertEquals(dest, (int) path.path.get(path.path.size() - 1));
+                    assertEquals(new HashSet<>(path.path).size(), path.path.size(), "loop in " + path.path);
+                    assertTrue(distinct.add(path.path), "repeated " + path.path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cancelledSearchReturnsNull() {
+        CsrGraph graph = TestGraphs.random(new Random(18), 5000, 20_000, 10);
+        assertNull(KShortestPaths.find(graph, graph.reverse(), 0, 1, 10, ForkJoinPool.commonPool(), () -> true));
+    }
+
+    // Costs of all loopless paths by node sequence, sorted. Parallel edges give
+    // the same node sequence, so each sequence counts once at its lightest.
+    private static List<Long> allCosts(CsrGraph graph, int src, int dest) {
+        List<Long> costs = new ArrayList<>();
+        ArrayList<Integer> path = new ArrayList<>();
+        path.add(src);
+        enumerate(graph, dest, path, new boolean[graph.nodeCount()], costs);
+        costs.sort(null);
+        return costs;
+    }
+
+    private static void enumerate(CsrGraph graph, int dest, ArrayList<Integer> path, boolean[] onPath, List<Long> costs) {
+        int u = path.get(path.size() - 1);
+        if (u == dest) {
+            costs.add(TestGraphs.pathWeight(graph, path));
+            return;
+        }
+        onPath[u] = true;
+        HashSet<Integer> tried = new HashSet<>();
+        for (int e = graph.begin(u); e < graph.end(u); e++) {
+            int v = graph.target(e);
+            if (!onPath[v] && tried.add(v)) {
+                path.add(v);
+                enumerate(graph, dest, path, onPath, costs);
+                path.remove(path.size() - 1);
+            }
+        }
+        onPath[u] = false;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+    // Few distinct keys, so probe runs overlap and removals shift entries back
+    @Test
+    void behavesLikeHashMap() {
+        Random random = new Random(12);
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            long key = LongIntHashMap.pack(random.nextInt(60), random.nextInt(60));
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    int value = random.nextInt(10);
+                    map.put(key, value);
+                    expected.put(key, value);
+                }
+                case 1 -> {
+                    int delta = random.nextInt(3) - 1;
+                    int sum = expected.getOrDefault(key, 0) + delta;
+                    if (sum == 0) {
+                        expected.remove(key);
+                    } else {
+                        expected.put(key, sum);
+                    }
+                    assertEquals(sum, map.add(key, delta));
+                }
+                case 2 -> assertEquals(expected.remove(key) != null, map.remove(key));
+                default -> assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1));
+            assertEquals(expected.size(), map.size());
+            if (step % 50_000 == 49_999) {
+                for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+                    assertEquals(entry.getValue(), map.get(entry.getKey(), -1));
+                }
+            }
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(LongIntHashMap.pack(1, 2), -1));
+    }
+
+    @Test
+    void packKeepsPairsApart() {
+        assertEquals(LongIntHashMap.pack(1, 2), LongIntHashMap.pack(1, 2));
+        LongIntHashMap map = new LongIntHashMap();
+        map.put(LongIntHashMap.pack(1, 2), 5);
+        assertEquals(-1, map.get(LongIntHashMap.pack(2, 1), -1));
+        assertEquals(-1, map.get(LongIntHashMap.pack(0, Integer.MAX_VALUE), -1));
+    }
+}
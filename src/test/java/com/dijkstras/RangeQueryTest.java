@@ -0,0 +1,52 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeQueryTest {
+    @Test
+    void reachesExactlyTheNodesWithinBudget() {
+        Random random = new Random(23);
+        for (int g = 0; g < 20; g++) {
+            int n = 2 + random.nextInt(500);
+            CsrGraph graph = TestGraphs.random(random, n, n * (1 + random.nextInt(3)), 30);
+            int[] sources = random.ints(10, 0, n).toArray();
+            int budget = random.nextInt(100);
+            RangeQuery.Result[] results = RangeQuery.run(graph, sources, budget);
+            for (int i = 0; i < sources.length; i++) {
+                check(graph, results[i], sources[i], budget);
+                check(graph, RangeQuery.run(graph, sources[i], budget), sources[i], budget);
+            }
+        }
+    }
+
+    private static void check(CsrGraph graph, RangeQuery.Result result, int src, int budget) {
+        int[] dist = DijkstrasAlgorithm.distances(graph, src);
+        int within = 0;
+        for (int d : dist) {
+            if (d <= budget) within++;
+        }
+        assertEquals(within, result.size(), "nodes within " + budget + " of " + src);
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(dist[result.nodes[i]], result.distances[i]);
+            assertTrue(i == 0 || result.distances[i - 1] <= result.distances[i], "settling order");
+        }
+    }
+
+    @Test
+    void negativeBudgetReachesNothing() {
+        CsrGraph graph = TestGraphs.random(new Random(24), 10, 20, 5);
+        assertEquals(0, RangeQuery.run(graph, 0, -1).size());
+    }
+
+    @Test
+    void cancelledQueryReturnsNull() {
+        CsrGraph graph = TestGraphs.random(new Random(25), 10_000, 40_000, 5);
+        assertNull(RangeQuery.run(graph, 0, Integer.MAX_VALUE / 2, () -> true));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dijkstras;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoutingServerTest {
+    private static RoutingServer server;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = new RoutingServer(TestGraphs.random(new Random(19), 100, 400, 10),
+                new InetSocketAddress("127.0.0.1", 0), 8);
+        server.start();
+    }
+
+    @AfterAll
+    static void stop() {
+        server.stop();
+    }
+
+    private static HttpResponse<String> get(String pathAndQuery) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + pathAndQuery)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void badInputIsRejectedWith400() throws Exception {
+        assertEquals(400, get("/route?src=1&dst=100").statusCode());
+        assertEquals(400, get("/route?src=1").statusCode());
+        assertEquals(400, get("/matrix?sources=,&targets=1").statusCode());
+        assertEquals(400, get("/matrix?sources=1,x&targets=1").statusCode());
+    }
+
+    @Test
+    void namesAndValuesAreDecoded() throws Exception {
+        HttpResponse<String> response = get("/matrix?s%6Fu%72ces=0%2C1&targets=5");
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(response.body().startsWith("{\"matrix\":[["), response.body());
+    }
+}
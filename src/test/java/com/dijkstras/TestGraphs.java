@@ -0,0 +1,87 @@
+package com.dijkstras;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Random graphs for the solver tests, and the check every solver's answer must pass
+final class TestGraphs {
+    private TestGraphs() {
+    }
+
+    // Directed, with parallel edges, self loops and about one weight in five zero
+    static CsrGraph random(Random random, int n, int m, int maxWeight) {
+        int[] src = new int[m], dest = new int[m], wt = new int[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = random.nextInt(n);
+            dest[e] = random.nextInt(n);
+            wt[e] = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(maxWeight);
+        }
+        return CsrGraph.fromEdges(n, src, dest, wt);
+    }
+
+    // Nodes at random points in x and y, each linked both ways to a few random
+    // others; a weight is never below the rounded-up length of its edge
+    static CsrGraph geometric(Random random, int n, int degree, double[] x, double[] y) {
+        for (int v = 0; v < n; v++) {
+            x[v] = random.nextInt(10_000);
+            y[v] = random.nextInt(10_000);
+        }
+        int m = 2 * n * degree;
+        int[] src = new int[m], dest = new int[m], wt = new int[m];
+        for (int e = 0; e < m; e += 2) {
+            int u = random.nextInt(n), v = random.nextInt(n);
+            int w = (int) Math.ceil(Math.hypot(x[u] - x[v], y[u] - y[v])) * (1 + random.nextInt(3));
+            src[e] = u;
+            dest[e] = v;
+            wt[e] = w;
+            src[e + 1] = v;
+            dest[e + 1] = u;
+            wt[e + 1] = w;
+        }
+        return CsrGraph.fromEdges(n, src, dest, wt);
+    }
+
+    // Shortest distance from src to dest, -1 when unreachable
+    static int distance(CsrGraph graph, int src, int dest) {
+        int d = DijkstrasAlgorithm.distances(graph, src)[dest];
+        return d == Integer.MAX_VALUE ? -1 : d;
+    }
+
+    // result holds the expected distance and, unless unreachable, a path from
+    // src to dest over edges of the graph whose weights add up to it
+    static void assertShortestPath(CsrGraph graph, int src, int dest, int expected, DijkstrasAlgorithm.Result result) {
+        String query = src + " -> " + dest;
+        assertEquals(expected, result.distance, "distance of " + query);
+        ArrayList<Integer> path = result.path;
+        if (expected == -1) {
+            assertTrue(path.isEmpty(), "path given for unreachable " + query);
+            return;
+        }
+        assertEquals(src, (int) path.get(0), "start of " + query);
+        assertEquals(dest, (int) path.get(path.size() - 1), "end of " + query);
+        assertEquals(expected, pathWeight(graph, path), "weight of path " + path + " for " + query);
+    }
+
+    // Sum of the lightest edge between each pair of consecutive nodes
+    static long pathWeight(CsrGraph graph, java.util.List<Integer> path) {
+        long weight = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            int u = path.get(i), v = path.get(i + 1);
+            int best = Integer.MAX_VALUE;
+            for (int e = graph.begin(u), end = graph.end(u); e < end; e++) {
+                if (graph.target(e) == v) {
+                    best = Math.min(best, graph.weight(e));
+                }
+            }
+            if (best == Integer.MAX_VALUE) {
+                fail("path " + path + " uses a missing edge " + u + " -> " + v);
+            }
+            weight += best;
+        }
+        return weight;
+    }
+}